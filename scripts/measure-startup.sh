@@ -0,0 +1,40 @@
+#!/bin/sh
+# Compares startup time and resident memory of the plain jar, the AOT-processed jar and the native executable.
+# Needs MySQL and Kafka reachable as configured for the chosen profile.
+#
+#   ./mvnw -DskipTests package                  && scripts/measure-startup.sh jar
+#   ./mvnw -Paot -DskipTests package            && scripts/measure-startup.sh aot
+#   ./mvnw -Pnative -DskipTests native:compile  && scripts/measure-startup.sh native
+
+MODE=${1:-jar}
+PROFILE=${PROFILE:-dev}
+PORT=${PORT:-8081}
+JAR=target/notification-age-svc-0.0.1-SNAPSHOT.jar
+
+case "$MODE" in
+  jar)    set -- java -Dspring.profiles.active="$PROFILE" -jar "$JAR" ;;
+  aot)    set -- java -Dspring.aot.enabled=true -Dspring.profiles.active="$PROFILE" -jar "$JAR" ;;
+  native) set -- target/notification-age-svc -Dspring.profiles.active="$PROFILE" ;;
+  *)      echo "usage: $0 [jar|aot|native]" >&2; exit 1 ;;
+esac
+
+START=$(date +%s%N)
+"$@" > target/startup-"$MODE".log 2>&1 &
+PID=$!
+
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+  if ! kill -0 "$PID" 2> /dev/null; then
+    echo "application exited, see target/startup-$MODE.log" >&2
+    exit 1
+  fi
+  sleep 0.05
+done
+
+READY_MS=$(( ($(date +%s%N) - START) / 1000000 ))
+RSS_KB=$(awk '/VmRSS/ {print $2}' /proc/"$PID"/status)
+
+kill "$PID"
+wait "$PID" 2> /dev/null
+
+echo "$MODE: ready in ${READY_MS} ms, RSS $(( RSS_KB / 1024 )) MB"
+grep -o 'Started Application in [0-9.]* seconds' target/startup-"$MODE".log
@@ -0,0 +1,9 @@
+package app.channel;
+
+import java.nio.file.Path;
+
+/**
+ * A resolved attachment reference. Only the location is held; content is read when the email is written out.
+ */
+public record Attachment(String fileName, Path path, long size, String contentType) {
+}
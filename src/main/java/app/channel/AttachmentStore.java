@@ -0,0 +1,70 @@
+package app.channel;
+
+import app.config.AttachmentProperties;
+import app.exception.InvalidAttachmentException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Resolves attachment references (a file id or a path relative to {@code notification.attachments.root})
+ * and enforces the size and count limits.
+ */
+@Component
+public class AttachmentStore {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final AttachmentProperties properties;
+    private final Path root;
+
+    @Autowired
+    public AttachmentStore(AttachmentProperties properties) {
+
+        this.properties = properties;
+        this.root = properties.getRoot().toAbsolutePath().normalize();
+    }
+
+    public void validate(List<String> references) {
+
+        if (references == null || references.isEmpty()) {
+            return;
+        }
+
+        if (references.size() > properties.getMaxPerMessage()) {
+            throw new InvalidAttachmentException("At most %d attachments are allowed per notification.".formatted(properties.getMaxPerMessage()));
+        }
+
+        references.forEach(this::resolve);
+    }
+
+    public Attachment resolve(String reference) {
+
+        if (reference == null || reference.isBlank()) {
+            throw new InvalidAttachmentException("Attachment reference must not be blank.");
+        }
+
+        Path path = root.resolve(reference).normalize();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            throw new InvalidAttachmentException("Attachment [%s] does not exist.".formatted(reference));
+        }
+
+        try {
+            long size = Files.size(path);
+            if (size > properties.getMaxSize().toBytes()) {
+                throw new InvalidAttachmentException("Attachment [%s] is larger than %s.".formatted(reference, properties.getMaxSize()));
+            }
+
+            String contentType = Files.probeContentType(path);
+
+            return new Attachment(path.getFileName().toString(), path, size, contentType != null ? contentType : DEFAULT_CONTENT_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package app.channel;
+
+import app.config.ChannelProperties;
+import app.model.NotificationPriority;
+import app.model.NotificationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor owned by a single channel, so a slow provider can only exhaust its own threads and queue.
+ * Queued work is split into priority lanes by a {@link PriorityLaneQueue}. In virtual-thread mode the pool's
+ * threads are virtual, so the pool size bounds concurrent provider calls without costing a platform thread each.
+ */
+class ChannelBulkhead {
+
+    private final ThreadPoolExecutor executor;
+    private final PriorityLaneQueue queue;
+    private final Duration timeout;
+    private final int capacity;
+    private final Map<NotificationPriority, Timer> queueWait = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Timer> latency = new EnumMap<>(NotificationPriority.class);
+
+    ChannelBulkhead(NotificationType type, ChannelProperties.Bulkhead settings, MeterRegistry meterRegistry, boolean virtualThreads) {
+
+        String threadPrefix = "channel-%s-".formatted(type.name().toLowerCase());
+        ThreadFactory threadFactory = virtualThreads && !settings.isPlatformThreads()
+                ? new VirtualThreadTaskExecutor(threadPrefix).getVirtualThreadFactory()
+                : platformThreadFactory(threadPrefix);
+
+        this.queue = new PriorityLaneQueue(
+                settings.getQueueCapacity(),
+                settings.getLaneWeights(),
+                settings.getMaxLaneWait(),
+                settings.getPoolSize() - settings.getReservedThreads());
+        this.executor = new ThreadPoolExecutor(
+                settings.getPoolSize(),
+                settings.getPoolSize(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                queue,
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        // every task has to pass through the lanes, none may be handed straight to a new worker
+        this.executor.prestartAllCoreThreads();
+        this.timeout = settings.getTimeout();
+        this.capacity = settings.getPoolSize() + settings.getQueueCapacity();
+
+        for (NotificationPriority priority : NotificationPriority.values()) {
+
+            String channel = type.name().toLowerCase();
+            String lane = priority.name().toLowerCase();
+
+            queueWait.put(priority, Timer.builder("notification.dispatch.queue.wait")
+                    .description("Time a delivery waited in its priority lane")
+                    .tags("channel", channel, "priority", lane)
+                    .register(meterRegistry));
+            latency.put(priority, Timer.builder("notification.dispatch.latency")
+                    .description("Time from queueing a delivery until the provider answered")
+                    .tags("channel", channel, "priority", lane)
+                    .register(meterRegistry));
+            meterRegistry.gauge("notification.dispatch.queue.size",
+                    Tags.of("channel", channel, "priority", lane),
+                    queue,
+                    q -> q.size(priority));
+        }
+    }
+
+    /**
+     * Queues the task with the channel's timeout as its deadline. A task still queued at the deadline is removed
+     * from its lane and a running one is interrupted; the returned future completes once the task has run or been
+     * removed, so a delivery is never reported failed while the provider call may still go through.
+     */
+    CompletableFuture<Void> submitAsync(NotificationPriority priority, Runnable task) {
+
+        DeadlineTask delivery = new DeadlineTask(task, timeout);
+        LaneTask queued = laneTask(priority, delivery);
+        executor.execute(queued);
+
+        CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> delivery.expire(() -> executor.remove(queued)));
+
+        return delivery.result;
+    }
+
+    Duration timeout() {
+        return timeout;
+    }
+
+    int pending() {
+        return queue.size() + executor.getActiveCount();
+    }
+
+    /**
+     * Busy threads plus the fullest lane, over the pool size plus one lane's capacity. Lanes are bounded
+     * separately, so this reaches 1 exactly when the fullest lane starts rejecting, however empty the others are.
+     */
+    double backlogRatio() {
+
+        int fullestLane = 0;
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            fullestLane = Math.max(fullestLane, queue.size(priority));
+        }
+
+        return (double) (executor.getActiveCount() + fullestLane) / capacity;
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory platformThreadFactory(String prefix) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private LaneTask laneTask(NotificationPriority priority, Runnable task) {
+
+        long queuedAt = System.nanoTime();
+
+        return new LaneTask(priority, () -> {
+            long startedAt = System.nanoTime();
+            queueWait.get(priority).record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                latency.get(priority).record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private static final class DeadlineTask implements Runnable {
+
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+
+        private final Runnable task;
+        private final Duration timeout;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private volatile Thread runner;
+
+        private DeadlineTask(Runnable task, Duration timeout) {
+            this.task = task;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run() {
+
+            runner = Thread.currentThread();
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                runner = null;
+                return;
+            }
+
+            try {
+                task.run();
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    state.set(DONE);
+                    runner = null;
+                }
+                // an interrupt from expire() must not leak into the pool thread's next task
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Interrupts the task if it is running. If it has not started, it never will: {@code dequeue} runs and then
+         * the result fails with a timeout.
+         */
+        void expire(Runnable dequeue) {
+
+            if (state.compareAndSet(QUEUED, DONE)) {
+                dequeue.run();
+                result.completeExceptionally(new TimeoutException("Not started within %s.".formatted(timeout)));
+                return;
+            }
+
+            synchronized (this) {
+                if (state.get() == RUNNING) {
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package app.channel;
+
+import app.config.ChannelProperties;
+import app.model.NotificationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes messages to the {@link NotificationChannel} registered for a {@link NotificationType}.
+ * Every channel runs on its own {@link ChannelBulkhead}, so a saturated provider fails fast instead of
+ * blocking deliveries on the other channels. Within a channel, deliveries are queued by their message priority.
+ */
+@Slf4j
+@Service
+public class ChannelDispatcher {
+
+    private final Map<NotificationType, NotificationChannel> channels = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationType, ChannelBulkhead> bulkheads = new EnumMap<>(NotificationType.class);
+
+    /**
+     * Bulkhead threads are virtual when {@code spring.threads.virtual.enabled} is set on Java 21 or later.
+     */
+    @Autowired
+    public ChannelDispatcher(List<NotificationChannel> channels, ChannelProperties properties, MeterRegistry meterRegistry, Environment environment) {
+
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+
+        for (NotificationChannel channel : channels) {
+            this.channels.put(channel.type(), channel);
+            this.bulkheads.put(channel.type(), new ChannelBulkhead(channel.type(), properties.forType(channel.type()), meterRegistry, virtualThreads));
+        }
+    }
+
+    /**
+     * Delivers the message on the channel's bulkhead and waits for the outcome. The deadline works as in
+     * {@link #dispatchAsync}: a delivery not started within the channel's timeout is skipped, while a started one
+     * is interrupted and waited for, so {@code false} never stands for a provider call that may still go through.
+     *
+     * @return {@code true} when the provider accepted the message
+     */
+    public boolean dispatch(NotificationType type, ChannelMessage message) {
+        return dispatchAsync(type, message).join();
+    }
+
+    /**
+     * Queues the message on the channel's bulkhead without waiting for the provider.
+     * The returned future completes with {@code false} on failure, rejection or timeout; it never completes exceptionally.
+     * A timed-out delivery completes only once it has been skipped or its interrupted provider call has returned.
+     */
+    public CompletableFuture<Boolean> dispatchAsync(NotificationType type, ChannelMessage message) {
+
+        NotificationChannel channel = channels.get(type);
+        if (channel == null) {
+            log.error("No delivery channel registered for type [{}].", type);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        ChannelBulkhead bulkhead = bulkheads.get(type);
+
+        try {
+            return bulkhead
+                    .submitAsync(message.getPriority(), () -> channel.deliver(message))
+                    .handle((ignored, e) -> {
+                        if (e != null) {
+                            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                            log.error("Failed {} delivery due to: {}", type, cause.toString());
+                            return false;
+                        }
+                        return true;
+                    });
+        } catch (RejectedExecutionException e) {
+            log.error("Failed {} delivery: channel bulkhead is full.", type);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Like {@link #dispatchAsync} for many messages of one channel. On a channel with a multi-recipient send,
+     * messages with identical content are merged into deliveries of up to {@link NotificationChannel#maxRecipients}
+     * distinct recipients. The returned futures line up with {@code messages} and each reflects its own recipient.
+     */
+    public List<CompletableFuture<Boolean>> dispatchAllAsync(NotificationType type, List<ChannelMessage> messages) {
+
+        NotificationChannel channel = channels.get(type);
+        if (channel == null || channel.maxRecipients() <= 1) {
+            return messages.stream().map(message -> dispatchAsync(type, message)).toList();
+        }
+
+        Map<ChannelMessage, List<Integer>> byContent = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            byContent.computeIfAbsent(messages.get(i).toBuilder().recipient(null).build(), content -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(Collections.nCopies(messages.size(), null));
+
+        byContent.forEach((content, indexes) -> {
+
+            for (List<Integer> chunk : chunks(indexes, messages, channel.maxRecipients())) {
+
+                if (chunk.size() == 1) {
+                    results.set(chunk.get(0), dispatchAsync(type, messages.get(chunk.get(0))));
+                    continue;
+                }
+
+                List<String> recipients = chunk.stream().map(index -> messages.get(index).getRecipient()).toList();
+                CompletableFuture<Set<String>> rejected = dispatchAllAsync(type, channel, content, recipients);
+
+                // recipients are distinct within a chunk, so each message maps to exactly one outcome
+                for (int index : chunk) {
+                    String recipient = messages.get(index).getRecipient();
+                    results.set(index, rejected.thenApply(failed -> !failed.contains(recipient)));
+                }
+            }
+        });
+
+        return results;
+    }
+
+    public int pending(NotificationType type) {
+
+        ChannelBulkhead bulkhead = bulkheads.get(type);
+        return bulkhead == null ? 0 : bulkhead.pending();
+    }
+
+    /**
+     * Fill level of the fullest bulkhead, from 0 (idle) to 1 (every thread busy and a priority lane full).
+     */
+    public double backlogRatio() {
+
+        return bulkheads.values()
+                .stream()
+                .mapToDouble(ChannelBulkhead::backlogRatio)
+                .max()
+                .orElse(0);
+    }
+
+    private CompletableFuture<Set<String>> dispatchAllAsync(NotificationType type, NotificationChannel channel, ChannelMessage content, List<String> recipients) {
+
+        AtomicReference<Set<String>> rejected = new AtomicReference<>(Set.of());
+
+        try {
+            return bulkheads.get(type)
+                    .submitAsync(content.getPriority(), () -> rejected.set(channel.deliverAll(content, recipients)))
+                    .handle((ignored, e) -> {
+                        if (e != null) {
+                            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                            log.error("Failed {} delivery to {} recipients due to: {}", type, recipients.size(), cause.toString());
+                            return Set.copyOf(recipients);
+                        }
+                        if (!rejected.get().isEmpty()) {
+                            log.error("Failed {} delivery to {} of {} recipients: rejected by the provider.", type, rejected.get().size(), recipients.size());
+                        }
+                        return rejected.get();
+                    });
+        } catch (RejectedExecutionException e) {
+            log.error("Failed {} delivery to {} recipients: channel bulkhead is full.", type, recipients.size());
+            return CompletableFuture.completedFuture(Set.copyOf(recipients));
+        }
+    }
+
+    /**
+     * Splits the messages into chunks of at most {@code maxRecipients} messages with distinct recipients, in the
+     * order of {@code indexes}. A recipient that occurs several times goes into a later chunk each time.
+     */
+    private static List<List<Integer>> chunks(List<Integer> indexes, List<ChannelMessage> messages, int maxRecipients) {
+
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Set<String>> members = new ArrayList<>();
+        int firstOpen = 0;
+
+        for (int index : indexes) {
+
+            String recipient = messages.get(index).getRecipient();
+
+            int chunk = firstOpen;
+            while (chunk < chunks.size() && (chunks.get(chunk).size() == maxRecipients || members.get(chunk).contains(recipient))) {
+                chunk++;
+            }
+
+            if (chunk == chunks.size()) {
+                chunks.add(new ArrayList<>());
+                members.add(new HashSet<>());
+            }
+
+            chunks.get(chunk).add(index);
+            members.get(chunk).add(recipient);
+
+            while (firstOpen < chunks.size() && chunks.get(firstOpen).size() == maxRecipients) {
+                firstOpen++;
+            }
+        }
+
+        return chunks;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        bulkheads.values().forEach(ChannelBulkhead::shutdown);
+    }
+}
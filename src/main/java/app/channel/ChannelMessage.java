@@ -0,0 +1,33 @@
+package app.channel;
+
+import app.model.NotificationPriority;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Messages that are equal apart from the recipient have identical content; {@link ChannelDispatcher#dispatchAllAsync}
+ * merges those into multi-recipient deliveries.
+ */
+@Data
+@Builder(toBuilder = true)
+public class ChannelMessage {
+
+    private String recipient;
+
+    private String subject;
+
+    private String body;
+
+    private String htmlBody;
+
+    /**
+     * Attachment references, resolved by the email channel at delivery time.
+     */
+    @Builder.Default
+    private List<String> attachments = List.of();
+
+    @Builder.Default
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+}
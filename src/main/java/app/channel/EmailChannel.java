@@ -0,0 +1,227 @@
+package app.channel;
+
+import app.config.AttachmentProperties;
+import app.model.NotificationType;
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeUtility;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+public class EmailChannel implements NotificationChannel {
+
+    private final JavaMailSender mailSender;
+    private final AttachmentStore attachmentStore;
+    private final AttachmentProperties attachmentProperties;
+    private final Semaphore attachmentSends;
+    private final int maxRecipients;
+
+    @Autowired
+    public EmailChannel(JavaMailSender mailSender,
+                        AttachmentStore attachmentStore,
+                        AttachmentProperties attachmentProperties,
+                        @Value("${notification.email.max-recipients-per-message:50}") int maxRecipients) {
+
+        this.mailSender = mailSender;
+        this.attachmentStore = attachmentStore;
+        this.attachmentProperties = attachmentProperties;
+        this.attachmentSends = new Semaphore(attachmentProperties.getMaxConcurrentSends());
+        this.maxRecipients = maxRecipients;
+    }
+
+    @Override
+    public NotificationType type() {
+        return NotificationType.EMAIL;
+    }
+
+    @Override
+    public int maxRecipients() {
+        return maxRecipients;
+    }
+
+    @Override
+    public void deliver(ChannelMessage message) {
+
+        send(message, Envelope.single(message.getRecipient()));
+    }
+
+    /**
+     * Sends one message with every recipient as Bcc, i.e. one SMTP transaction with a RCPT TO per recipient
+     * and a single DATA transfer, without recipients seeing each other. With {@code mail.smtp.sendpartial}
+     * the provider's per-recipient rejections come back as a {@link SendFailedException} and only those
+     * recipients are reported as failed.
+     */
+    @Override
+    public Set<String> deliverAll(ChannelMessage message, List<String> recipients) {
+
+        try {
+            send(message, Envelope.hidden(recipients));
+            return Set.of();
+        } catch (MailSendException e) {
+            Set<String> rejected = rejectedRecipients(e, recipients);
+            if (rejected == null) {
+                throw e;
+            }
+            return rejected;
+        }
+    }
+
+    private void send(ChannelMessage message, Envelope envelope) {
+
+        if (message.getHtmlBody() == null && message.getAttachments().isEmpty()) {
+            mailSender.send(toSimpleMessage(message, envelope));
+            return;
+        }
+
+        if (message.getAttachments().isEmpty()) {
+            mailSender.send(toMimeMessage(message, envelope, List.of()));
+            return;
+        }
+
+        List<Attachment> attachments = message.getAttachments().stream().map(attachmentStore::resolve).toList();
+
+        acquireAttachmentSend();
+        try {
+            mailSender.send(toMimeMessage(message, envelope, attachments));
+        } finally {
+            attachmentSends.release();
+        }
+    }
+
+    private static SimpleMailMessage toSimpleMessage(ChannelMessage message, Envelope envelope) {
+
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        if (envelope.to() != null) {
+            mailMessage.setTo(envelope.to());
+        } else {
+            mailMessage.setBcc(envelope.bcc());
+        }
+        mailMessage.setSubject(message.getSubject());
+        mailMessage.setText(message.getBody());
+
+        return mailMessage;
+    }
+
+    private MimeMessage toMimeMessage(ChannelMessage message, Envelope envelope, List<Attachment> attachments) {
+
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+            if (envelope.to() != null) {
+                helper.setTo(envelope.to());
+            } else {
+                helper.setBcc(envelope.bcc());
+            }
+            helper.setSubject(message.getSubject());
+
+            if (message.getHtmlBody() != null) {
+                helper.setText(message.getBody(), message.getHtmlBody());
+            } else {
+                helper.setText(message.getBody());
+            }
+
+            for (Attachment attachment : attachments) {
+                helper.getRootMimeMultipart().addBodyPart(toBodyPart(attachment));
+            }
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            throw new MailPreparationException("Could not build email for [%s].".formatted(envelope), e);
+        }
+
+        return mimeMessage;
+    }
+
+    /**
+     * The transfer encoding is set up front; otherwise Jakarta Mail reads the whole file once more
+     * on {@code saveChanges()} just to choose one.
+     */
+    private static MimeBodyPart toBodyPart(Attachment attachment) throws MessagingException, UnsupportedEncodingException {
+
+        MimeBodyPart part = new MimeBodyPart();
+        part.setDataHandler(new DataHandler(new PathDataSource(attachment)));
+        part.setDisposition(Part.ATTACHMENT);
+        part.setFileName(MimeUtility.encodeText(attachment.fileName(), StandardCharsets.UTF_8.name(), null));
+        part.setHeader("Content-Transfer-Encoding", "base64");
+
+        return part;
+    }
+
+    /**
+     * Recipients the provider refused or that were left unsent after a refusal, or {@code null} when the
+     * failure carries no per-recipient detail.
+     */
+    private static Set<String> rejectedRecipients(MailSendException e, List<String> recipients) {
+
+        for (Exception failure : e.getFailedMessages().values()) {
+
+            if (!(failure instanceof SendFailedException sendFailed)
+                    || (sendFailed.getInvalidAddresses() == null && sendFailed.getValidUnsentAddresses() == null)) {
+                continue;
+            }
+
+            Set<String> rejected = new HashSet<>();
+            Stream.of(sendFailed.getInvalidAddresses(), sendFailed.getValidUnsentAddresses())
+                    .filter(Objects::nonNull)
+                    .flatMap(Arrays::stream)
+                    .map(address -> address instanceof InternetAddress internet ? internet.getAddress() : address.toString())
+                    .forEach(address -> rejected.add(address.toLowerCase(Locale.ROOT)));
+
+            return recipients.stream()
+                    .filter(recipient -> rejected.contains(recipient.trim().toLowerCase(Locale.ROOT)))
+                    .collect(Collectors.toSet());
+        }
+
+        return null;
+    }
+
+    private void acquireAttachmentSend() {
+
+        try {
+            if (!attachmentSends.tryAcquire(attachmentProperties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Too many emails with attachments in flight.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting to send attachments.", e);
+        }
+    }
+
+    /**
+     * Either a single visible recipient or a list of hidden ones.
+     */
+    private record Envelope(String to, String[] bcc) {
+
+        static Envelope single(String recipient) {
+            return new Envelope(recipient, null);
+        }
+
+        static Envelope hidden(List<String> recipients) {
+            return new Envelope(null, recipients.toArray(String[]::new));
+        }
+
+        @Override
+        public String toString() {
+            return to != null ? to : "%d recipients".formatted(bcc.length);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package app.channel;
+
+import app.model.NotificationPriority;
+
+/**
+ * Work item of a {@link PriorityLaneQueue}, remembering its lane and when it was queued.
+ */
+class LaneTask implements Runnable {
+
+    private final NotificationPriority priority;
+    private final Runnable delegate;
+    private final long enqueuedAtNanos;
+    private Runnable onComplete = () -> {};
+
+    LaneTask(NotificationPriority priority, Runnable delegate) {
+
+        this.priority = priority;
+        this.delegate = delegate;
+        this.enqueuedAtNanos = System.nanoTime();
+    }
+
+    NotificationPriority priority() {
+        return priority;
+    }
+
+    long enqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    void onComplete(Runnable onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            delegate.run();
+        } finally {
+            onComplete.run();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package app.channel;
+
+import app.model.NotificationType;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Delivery adapter for a single {@link NotificationType}.
+ * Implementations are invoked on the channel's own bulkhead by {@link ChannelDispatcher}
+ * and signal a failed delivery by throwing.
+ */
+public interface NotificationChannel {
+
+    NotificationType type();
+
+    void deliver(ChannelMessage message);
+
+    /**
+     * Most recipients {@link #deliverAll} takes in one call. Channels without a multi-recipient send keep 1,
+     * and the dispatcher never merges their messages.
+     */
+    default int maxRecipients() {
+        return 1;
+    }
+
+    /**
+     * Delivers the same content to every recipient, ignoring the message's own recipient.
+     *
+     * @return the recipients that were not delivered to; throws if the delivery failed as a whole
+     */
+    default Set<String> deliverAll(ChannelMessage message, List<String> recipients) {
+
+        Set<String> failed = new HashSet<>();
+
+        for (String recipient : recipients) {
+            try {
+                deliver(message.toBuilder().recipient(recipient).build());
+            } catch (RuntimeException e) {
+                failed.add(recipient);
+            }
+        }
+
+        return failed;
+    }
+}
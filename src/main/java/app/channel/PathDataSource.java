@@ -0,0 +1,43 @@
+package app.channel;
+
+import jakarta.activation.DataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the attachment through a file channel each time the message is written, so the content is
+ * streamed into the SMTP connection in encoder-sized chunks instead of being held on the heap.
+ */
+class PathDataSource implements DataSource {
+
+    private final Attachment attachment;
+
+    PathDataSource(Attachment attachment) {
+        this.attachment = attachment;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Channels.newInputStream(FileChannel.open(attachment.path(), StandardOpenOption.READ));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        throw new UnsupportedOperationException("Attachments are read-only.");
+    }
+
+    @Override
+    public String getContentType() {
+        return attachment.contentType();
+    }
+
+    @Override
+    public String getName() {
+        return attachment.fileName();
+    }
+}
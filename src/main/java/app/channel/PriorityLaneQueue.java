@@ -0,0 +1,325 @@
+package app.channel;
+
+import app.model.NotificationPriority;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Work queue with one bounded lane per {@link NotificationPriority}.
+ * <p>
+ * Lanes are served by smooth weighted round-robin, so higher lanes get a proportionally larger share of the
+ * threads. A lane whose head has waited longer than {@code maxWait} is served next regardless of weight, and
+ * at most {@code lowConcurrency} threads may run {@link NotificationPriority#LOW} work at once, which keeps
+ * the remaining threads free for transactional mail while a bulk send drains.
+ */
+class PriorityLaneQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private static final NotificationPriority[] LANES = NotificationPriority.values();
+    private static final int LOW = NotificationPriority.LOW.ordinal();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition eligible = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final List<ArrayDeque<LaneTask>> lanes = new ArrayList<>(LANES.length);
+    private final int laneCapacity;
+    private final int[] weights = new int[LANES.length];
+    private final int[] credits = new int[LANES.length];
+    private final long maxWaitNanos;
+    private final int lowConcurrency;
+
+    private int runningLow;
+    private int count;
+
+    PriorityLaneQueue(int laneCapacity, Map<NotificationPriority, Integer> weights, Duration maxWait, int lowConcurrency) {
+
+        for (NotificationPriority lane : LANES) {
+            this.lanes.add(new ArrayDeque<>());
+            this.weights[lane.ordinal()] = Math.max(1, weights.getOrDefault(lane, 1));
+        }
+        this.laneCapacity = laneCapacity;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.lowConcurrency = Math.max(1, lowConcurrency);
+    }
+
+    @Override
+    public boolean offer(Runnable runnable) {
+
+        lock.lock();
+        try {
+            return enqueue(runnable);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!enqueue(runnable)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable runnable) throws InterruptedException {
+
+        lock.lockInterruptibly();
+        try {
+            while (!enqueue(runnable)) {
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+
+        lock.lock();
+        try {
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            LaneTask task;
+            while ((task = dequeue()) == null) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = eligible.awaitNanos(nanos);
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+
+        lock.lockInterruptibly();
+        try {
+            LaneTask task;
+            while ((task = dequeue()) == null) {
+                eligible.await();
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+
+        lock.lock();
+        try {
+            return lanes.stream()
+                    .map(ArrayDeque::peekFirst)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+
+        lock.lock();
+        try {
+            for (ArrayDeque<LaneTask> lane : lanes) {
+                if (lane.remove(o)) {
+                    count--;
+                    notFull.signal();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+
+        drainTo(new ArrayList<>());
+    }
+
+    @Override
+    public int size() {
+
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size(NotificationPriority lane) {
+
+        lock.lock();
+        try {
+            return lanes.get(lane.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+
+        lock.lock();
+        try {
+            return laneCapacity * LANES.length - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target) {
+
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target, int maxElements) {
+
+        lock.lock();
+        try {
+            int drained = 0;
+            for (ArrayDeque<LaneTask> lane : lanes) {
+                while (drained < maxElements && !lane.isEmpty()) {
+                    target.add(lane.pollFirst());
+                    drained++;
+                }
+            }
+            count -= drained;
+            notFull.signalAll();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Runnable> iterator() {
+
+        lock.lock();
+        try {
+            List<Runnable> snapshot = new ArrayList<>(count);
+            lanes.forEach(snapshot::addAll);
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(Runnable runnable) {
+
+        LaneTask task = runnable instanceof LaneTask laneTask
+                ? laneTask
+                : new LaneTask(NotificationPriority.NORMAL, runnable);
+
+        ArrayDeque<LaneTask> lane = lanes.get(task.priority().ordinal());
+        if (lane.size() >= laneCapacity) {
+            return false;
+        }
+
+        lane.addLast(task);
+        count++;
+        eligible.signal();
+        return true;
+    }
+
+    private LaneTask dequeue() {
+
+        long now = System.nanoTime();
+        for (int i = LANES.length - 1; i > 0; i--) {
+            LaneTask head = lanes.get(i).peekFirst();
+            if (head != null && admissible(i) && now - head.enqueuedAtNanos() >= maxWaitNanos) {
+                return dequeue(i);
+            }
+        }
+
+        int totalWeight = 0;
+        int selected = -1;
+        for (int i = 0; i < LANES.length; i++) {
+            if (lanes.get(i).isEmpty()) {
+                credits[i] = 0;
+            } else if (admissible(i)) {
+                credits[i] += weights[i];
+                totalWeight += weights[i];
+                if (selected < 0 || credits[i] > credits[selected]) {
+                    selected = i;
+                }
+            }
+        }
+
+        if (selected < 0) {
+            return null;
+        }
+
+        credits[selected] -= totalWeight;
+        return dequeue(selected);
+    }
+
+    private LaneTask dequeue(int lane) {
+
+        LaneTask task = lanes.get(lane).pollFirst();
+        count--;
+        notFull.signal();
+
+        if (lane == LOW) {
+            runningLow++;
+            task.onComplete(this::lowTaskCompleted);
+        }
+
+        return task;
+    }
+
+    private boolean admissible(int lane) {
+
+        return lane != LOW || runningLow < lowConcurrency;
+    }
+
+    private void lowTaskCompleted() {
+
+        lock.lock();
+        try {
+            runningLow--;
+            eligible.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
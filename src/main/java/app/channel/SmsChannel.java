@@ -0,0 +1,24 @@
+package app.channel;
+
+import app.model.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for an SMS provider: logs the message instead of sending it.
+ */
+@Slf4j
+@Component
+public class SmsChannel implements NotificationChannel {
+
+    @Override
+    public NotificationType type() {
+        return NotificationType.SMS;
+    }
+
+    @Override
+    public void deliver(ChannelMessage message) {
+
+        log.info("---Send SMS to [%s] with subject [%s].".formatted(message.getRecipient(), message.getSubject()));
+    }
+}
@@ -0,0 +1,39 @@
+package app.config;
+
+import app.web.admission.AdmissionInterceptor;
+import app.web.admission.AdmissionLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registered explicitly rather than through the properties scan so that web slice tests, which load
+ * this configurer, get the limiter as well.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AdmissionLimiter> admissionLimiter;
+
+    public AdmissionConfig(ObjectProvider<AdmissionLimiter> admissionLimiter) {
+        this.admissionLimiter = admissionLimiter;
+    }
+
+    @Bean
+    public AdmissionLimiter admissionLimiter(AdmissionProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+
+        return new AdmissionLimiter(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+
+        registry.addInterceptor(new AdmissionInterceptor(admissionLimiter.getObject()));
+    }
+}
@@ -0,0 +1,31 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.admission")
+public class AdmissionProperties {
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Requests allowed to wait for a slot once the limit is reached; beyond that they get 429 immediately.
+     */
+    private int queueCapacity = 50;
+
+    private Duration maxQueueWait = Duration.ofMillis(500);
+
+    /**
+     * Requests slower than this shrink the limit; faster ones grow it while it is in use.
+     */
+    private Duration latencyThreshold = Duration.ofSeconds(2);
+
+    private double backoffRatio = 0.9;
+}
@@ -0,0 +1,29 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.attachments")
+public class AttachmentProperties {
+
+    /**
+     * Directory attachment references are resolved against; references may not point outside of it.
+     */
+    private Path root = Path.of("attachments");
+
+    private DataSize maxSize = DataSize.ofMegabytes(25);
+
+    private int maxPerMessage = 10;
+
+    /**
+     * Emails with attachments that may be streaming to the SMTP server at the same time.
+     */
+    private int maxConcurrentSends = 8;
+
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
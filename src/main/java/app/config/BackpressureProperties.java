@@ -0,0 +1,36 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "notification.backpressure")
+public class BackpressureProperties {
+
+    private boolean enabled = true;
+
+    private Duration checkInterval = Duration.ofMillis(200);
+
+    /**
+     * Listeners paused under load. Retry and dead-letter containers of a listener share its id as prefix
+     * and are paused with it.
+     */
+    private List<String> listenerIds = List.of("notification-requests", "user-registered");
+
+    /**
+     * Fill level of the fullest channel bulkhead at which consumption pauses, and below which it resumes.
+     */
+    private double dispatchHighWatermark = 0.8;
+
+    private double dispatchLowWatermark = 0.5;
+
+    /**
+     * Share of the maximum heap in use at which consumption pauses, and below which it resumes.
+     */
+    private double heapHighWatermark = 0.85;
+
+    private double heapLowWatermark = 0.7;
+}
@@ -0,0 +1,63 @@
+package app.config;
+
+import app.model.NotificationPriority;
+import app.model.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkhead sizing per delivery channel, e.g. {@code notification.channels.email.pool-size=8}.
+ * Channels without an entry use the defaults of {@link Bulkhead}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification")
+public class ChannelProperties {
+
+    private Map<NotificationType, Bulkhead> channels = new EnumMap<>(NotificationType.class);
+
+    public Bulkhead forType(NotificationType type) {
+
+        return channels.getOrDefault(type, new Bulkhead());
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        private int poolSize = 4;
+
+        /**
+         * Capacity of each priority lane.
+         */
+        private int queueCapacity = 100;
+
+        private Duration timeout = Duration.ofSeconds(10);
+
+        /**
+         * Share of the pool each lane receives while several lanes have work queued.
+         */
+        private Map<NotificationPriority, Integer> laneWeights = new EnumMap<>(Map.of(
+                NotificationPriority.HIGH, 8,
+                NotificationPriority.NORMAL, 3,
+                NotificationPriority.LOW, 1));
+
+        /**
+         * Longest a lane's head may wait before it is served ahead of higher lanes.
+         */
+        private Duration maxLaneWait = Duration.ofSeconds(2);
+
+        /**
+         * Threads that LOW priority work may never occupy.
+         */
+        private int reservedThreads = 1;
+
+        /**
+         * Keeps this channel on platform threads in virtual-thread mode, for a provider client that blocks
+         * inside {@code synchronized} code and would pin the carrier threads.
+         */
+        private boolean platformThreads = false;
+    }
+}
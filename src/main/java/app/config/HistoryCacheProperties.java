@@ -0,0 +1,28 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.history")
+public class HistoryCacheProperties {
+
+    /**
+     * Most recent notifications kept in memory per cached user; the history endpoint reads older ones from the table.
+     */
+    private int entriesPerUser = 50;
+
+    /**
+     * Estimated heap the cache may use before the least recently read users are evicted.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+
+    /**
+     * How long a user's loaded history is served before it is read again. Each replica only applies its own
+     * writes, so this bounds how long changes made by other replicas or the background jobs stay invisible.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
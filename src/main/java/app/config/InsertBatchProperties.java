@@ -0,0 +1,34 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.insert-batch")
+public class InsertBatchProperties {
+
+    /**
+     * When on, new notifications from concurrent requests are inserted together, one transaction per batch.
+     */
+    private boolean enabled = false;
+
+    private int maxBatchSize = 200;
+
+    /**
+     * How long the writer waits for more rows after the first one of a batch arrives.
+     */
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    /**
+     * Rows waiting for the writer. Past this, callers insert their row themselves.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * How long an insert waits for the writer to take its row. A row the writer has taken is waited for until
+     * its batch commits, since it may still be written.
+     */
+    private Duration insertTimeout = Duration.ofSeconds(5);
+}
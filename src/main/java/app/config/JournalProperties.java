@@ -0,0 +1,40 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.journal")
+public class JournalProperties {
+
+    /**
+     * When on, delivered notifications are acknowledged once they are in the local journal and written to
+     * the database later in batches.
+     */
+    private boolean enabled = false;
+
+    private String directory = "journal";
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How long the flusher waits for more appends before forcing the segment; every append in that window
+     * shares one fsync.
+     */
+    private Duration groupCommitInterval = Duration.ofMillis(2);
+
+    private Duration appendTimeout = Duration.ofSeconds(5);
+
+    private Duration drainInterval = Duration.ofMillis(100);
+
+    private int drainBatchSize = 1000;
+
+    /**
+     * Undrained entries kept in memory. Past this, e.g. while the database is down, sends fall back to
+     * writing the row directly.
+     */
+    private int maxBacklog = 100_000;
+}
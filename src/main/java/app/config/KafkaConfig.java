@@ -0,0 +1,156 @@
+package app.config;
+
+import app.exception.InvalidNotificationRequestException;
+import app.preference.PreferenceView;
+import app.web.dto.NotificationRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConfig {
+
+    @Bean
+    public NewTopic notificationRequestedTopic(@Value("${notification.ingestion.partitions:6}") int partitions) {
+
+        return TopicBuilder.name("notification-requested.v1")
+                .partitions(partitions)
+                .build();
+    }
+
+    /**
+     * Same partition count as the source topic: the dead-letter recoverer publishes each record to the
+     * partition it failed on.
+     */
+    @Bean
+    public NewTopic notificationRequestedDeadLetterTopic(@Value("${notification.ingestion.partitions:6}") int partitions) {
+
+        return TopicBuilder.name("notification-requested.v1-dlt")
+                .partitions(partitions)
+                .build();
+    }
+
+    @Bean
+    public NewTopic notificationStatusTopic(@Value("${notification.outbox.partitions:6}") int partitions) {
+
+        return TopicBuilder.name("notification-status.v1")
+                .partitions(partitions)
+                .build();
+    }
+
+    /**
+     * A single partition, which {@link app.event.SuppressionEventConsumer} assigns to every replica.
+     */
+    @Bean
+    public NewTopic notificationSuppressionsTopic() {
+
+        return TopicBuilder.name("notification-suppressions.v1")
+                .partitions(1)
+                .build();
+    }
+
+    /**
+     * Compacted, so replaying it from the beginning yields each user's latest preference.
+     */
+    @Bean
+    public NewTopic notificationPreferencesTopic(@Value("${notification.preferences.partitions:6}") int partitions) {
+
+        return TopicBuilder.name(PreferenceView.TOPIC)
+                .partitions(partitions)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Template used for retry and dead-letter topics. Records that failed deserialization are forwarded
+     * with their original raw bytes, everything else is written as JSON.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> dltKafkaTemplate(KafkaProperties kafkaProperties) {
+
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>());
+
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(),
+                new DelegatingByTypeSerializer(valueSerializers, true));
+
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+        template.setObservationEnabled(true);
+        return template;
+    }
+
+    /**
+     * Batch listener factory for queued send requests. Payloads are read as {@link NotificationRequest}
+     * regardless of the producer's type headers, and offsets are acknowledged manually after persistence.
+     * A record the listener rejects goes to {@code notification-requested.v1-dlt} instead of blocking its partition.
+     * Client metrics, including {@code kafka.consumer.fetch.manager.records.lag.max}, are published to Micrometer.
+     * Consumer threads are virtual in virtual-thread mode, like those of the auto-configured factory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationRequest> notificationRequestListenerFactory(
+            KafkaProperties kafkaProperties,
+            @Value("${notification.ingestion.max-poll-records:500}") int maxPollRecords,
+            @Value("${notification.ingestion.concurrency:3}") int concurrency,
+            KafkaTemplate<String, Object> dltKafkaTemplate,
+            MeterRegistry meterRegistry,
+            Environment environment) {
+
+        Map<String, Object> consumerProperties = kafkaProperties.buildConsumerProperties(null);
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProperties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, NotificationRequest.class.getName());
+        consumerProperties.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, NotificationRequest> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        DefaultKafkaConsumerFactory<String, NotificationRequest> consumerFactory = new DefaultKafkaConsumerFactory<>(consumerProperties);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+
+        // the auto-configured factory gets this from Boot; this one is built by hand
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("kafka-requests-"));
+        }
+
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxElapsedTime(10_000);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(new DeadLetterPublishingRecoverer(dltKafkaTemplate), backOff);
+        // a request missing required fields fails the same way on every attempt
+        errorHandler.addNotRetryableExceptions(InvalidNotificationRequestException.class);
+        factory.setCommonErrorHandler(errorHandler);
+
+        return factory;
+    }
+}
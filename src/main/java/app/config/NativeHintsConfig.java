@@ -0,0 +1,22 @@
+package app.config;
+
+import app.event.payload.NotificationStatusEvent;
+import app.event.payload.UserRegisteredEvent;
+import app.web.dto.NotificationRequest;
+import app.web.dto.SuppressionRequest;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reflection hints for the AOT and native builds. Kafka payloads are bound by Jackson from type headers or
+ * listener signatures, which the AOT engine cannot discover from the controllers alone.
+ */
+@Configuration
+@RegisterReflectionForBinding({
+        UserRegisteredEvent.class,
+        NotificationRequest.class,
+        NotificationStatusEvent.class,
+        SuppressionRequest.class
+})
+public class NativeHintsConfig {
+}
@@ -0,0 +1,31 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.preferences.view")
+public class PreferenceViewProperties {
+
+    /**
+     * When on, every replica keeps all preferences in memory, rebuilt from and kept current by
+     * {@code notification-preferences.v1}, and sends resolve preferences without querying the table.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Sizes the table up front so the initial replay does not have to grow it.
+     */
+    private int expectedUsers = 100_000;
+
+    private Duration pollTimeout = Duration.ofMillis(500);
+
+    /**
+     * Wait before reconnecting after the topic consumer failed, and between retries of failed publishes.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(5);
+
+    private int republishPageSize = 1000;
+}
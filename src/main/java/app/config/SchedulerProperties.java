@@ -0,0 +1,27 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.scheduler")
+public class SchedulerProperties {
+
+    private Duration tick = Duration.ofMillis(1);
+
+    private int wheelSize = 4096;
+
+    /**
+     * Upper bound of scheduled notifications released per tick; the rest slide into the following ticks.
+     */
+    private int maxFiresPerTick = 20;
+
+    /**
+     * How far ahead due rows are loaded into the wheel. Must be longer than {@link #preloadInterval}.
+     */
+    private Duration preloadWindow = Duration.ofSeconds(90);
+
+    private Duration preloadInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,24 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.suppression")
+public class SuppressionProperties {
+
+    /**
+     * Sizing of the in-memory Bloom filter; past this many addresses its false-positive rate degrades.
+     */
+    private long expectedAddresses = 1_000_000;
+
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * How often the filter is rebuilt from the table, which also drops removed addresses and picks up
+     * suppressions ingested by other replicas.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,21 @@
+package app.config;
+
+import app.trace.StageTimer;
+import app.trace.TimedJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Replaces Boot's default Jackson converter so JSON serialization shows up in the stage breakdown.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, StageTimer stageTimer) {
+
+        return new TimedJacksonHttpMessageConverter(objectMapper, stageTimer);
+    }
+}
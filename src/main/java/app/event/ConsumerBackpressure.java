@@ -0,0 +1,138 @@
+package app.event;
+
+import app.channel.ChannelDispatcher;
+import app.config.BackpressureProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Pauses the listeners that feed the channel dispatcher while it cannot keep up, so records wait in Kafka
+ * rather than in memory or in a full bulkhead that would fail them. Consumption pauses once the fullest
+ * bulkhead or the heap passes its high watermark and resumes only when both are back below their low
+ * watermark. Paused consumers keep polling, so the group stays assigned and the client's lag metrics stay live.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.backpressure", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConsumerBackpressure {
+
+    // the heap pool that supports a usage threshold is the old generation; young pools do not
+    private static final MemoryPoolMXBean OLD_GEN = ManagementFactory.getMemoryPoolMXBeans()
+            .stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported())
+            .reduce((first, second) -> second)
+            .orElse(null);
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ChannelDispatcher channelDispatcher;
+    private final BackpressureProperties properties;
+    private final DoubleSupplier heapUsage;
+    private final Counter pauses;
+
+    private volatile boolean paused;
+
+    @Autowired
+    public ConsumerBackpressure(KafkaListenerEndpointRegistry registry,
+                                ChannelDispatcher channelDispatcher,
+                                BackpressureProperties properties,
+                                MeterRegistry meterRegistry) {
+
+        this(registry, channelDispatcher, properties, meterRegistry, ConsumerBackpressure::heapUsage);
+    }
+
+    ConsumerBackpressure(KafkaListenerEndpointRegistry registry,
+                         ChannelDispatcher channelDispatcher,
+                         BackpressureProperties properties,
+                         MeterRegistry meterRegistry,
+                         DoubleSupplier heapUsage) {
+
+        this.registry = registry;
+        this.channelDispatcher = channelDispatcher;
+        this.properties = properties;
+        this.heapUsage = heapUsage;
+        this.pauses = Counter.builder("notification.consumer.pauses")
+                .description("Times the dispatch-feeding listeners were paused for backpressure")
+                .register(meterRegistry);
+
+        Gauge.builder("notification.consumer.paused", this, backpressure -> backpressure.paused ? 1 : 0)
+                .description("1 while the dispatch-feeding listeners are paused for backpressure")
+                .register(meterRegistry);
+        Gauge.builder("notification.dispatch.backlog.ratio", channelDispatcher, ChannelDispatcher::backlogRatio)
+                .description("Fill level of the fullest channel bulkhead")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.backpressure.check-interval:200ms}")
+    public void check() {
+
+        double backlog = channelDispatcher.backlogRatio();
+        double heap = heapUsage.getAsDouble();
+
+        if (!paused && (backlog >= properties.getDispatchHighWatermark() || heap >= properties.getHeapHighWatermark())) {
+
+            paused = true;
+            pauses.increment();
+            forEachContainer(MessageListenerContainer::pause);
+
+            log.warn("Paused Kafka consumption: dispatch backlog %d%%, heap %d%%.".formatted(percent(backlog), percent(heap)));
+
+        } else if (paused && backlog < properties.getDispatchLowWatermark() && heap < properties.getHeapLowWatermark()) {
+
+            paused = false;
+            forEachContainer(MessageListenerContainer::resume);
+
+            log.info("---Resumed Kafka consumption: dispatch backlog %d%%, heap %d%%.".formatted(percent(backlog), percent(heap)));
+        }
+    }
+
+    boolean isPaused() {
+        return paused;
+    }
+
+    private void forEachContainer(Consumer<MessageListenerContainer> action) {
+
+        for (MessageListenerContainer container : registry.getAllListenerContainers()) {
+
+            String listenerId = container.getListenerId();
+
+            if (listenerId != null && properties.getListenerIds().stream().anyMatch(listenerId::startsWith)) {
+                action.accept(container);
+            }
+        }
+    }
+
+    /**
+     * Old-generation occupancy right after the last collection, i.e. memory that is actually live. Current usage
+     * would include garbage not yet collected and sit near the watermark for most of every GC cycle.
+     */
+    private static double heapUsage() {
+
+        MemoryUsage afterGc = OLD_GEN == null ? null : OLD_GEN.getCollectionUsage();
+        if (afterGc == null) {
+            Runtime runtime = Runtime.getRuntime();
+            return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+        }
+
+        long max = afterGc.getMax() > 0 ? afterGc.getMax() : Runtime.getRuntime().maxMemory();
+        return (double) afterGc.getUsed() / max;
+    }
+
+    private static int percent(double ratio) {
+        return (int) Math.round(ratio * 100);
+    }
+}
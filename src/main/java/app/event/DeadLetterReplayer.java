@@ -0,0 +1,198 @@
+package app.event;
+
+import app.exception.InvalidReplayRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-publishes dead-lettered records to the topic they originally failed on. Progress is tracked
+ * with a dedicated consumer group, so every dead letter is replayed at most once per request.
+ * <p>
+ * The dead-letter partitions are assigned directly rather than subscribed to, so a replay neither waits for
+ * a group rebalance nor mistakes it for an empty topic. A replay covers the records present when it starts.
+ */
+@Slf4j
+@Component
+public class DeadLetterReplayer {
+
+    static final String DLT_SUFFIX = "-dlt";
+    private static final String REPLAY_GROUP_ID = "notification-age-svc-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration REPLAY_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ConsumerFactory<byte[], byte[]> consumerFactory;
+    private final KafkaTemplate<byte[], byte[]> replayTemplate;
+
+    @Autowired
+    public DeadLetterReplayer(KafkaProperties kafkaProperties) {
+
+        this(consumerFactory(kafkaProperties),
+                new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                        kafkaProperties.buildProducerProperties(null),
+                        new ByteArraySerializer(),
+                        new ByteArraySerializer())));
+    }
+
+    DeadLetterReplayer(ConsumerFactory<byte[], byte[]> consumerFactory, KafkaTemplate<byte[], byte[]> replayTemplate) {
+
+        this.consumerFactory = consumerFactory;
+        this.replayTemplate = replayTemplate;
+    }
+
+    /**
+     * @return the number of records sent back to their original topic
+     */
+    public int replay(String dltTopic, int maxRecords) {
+
+        if (!dltTopic.endsWith(DLT_SUFFIX)) {
+            throw new InvalidReplayRequestException("Topic [%s] is not a dead-letter topic.".formatted(dltTopic));
+        }
+
+        if (maxRecords <= 0) {
+            throw new InvalidReplayRequestException("maxRecords must be positive, got %d.".formatted(maxRecords));
+        }
+
+        try (Consumer<byte[], byte[]> consumer = consumerFactory.createConsumer(REPLAY_GROUP_ID, null, null, maxRecordsProperties(maxRecords))) {
+
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo partition : Optional.ofNullable(consumer.partitionsFor(dltTopic)).orElse(List.of())) {
+                partitions.add(new TopicPartition(partition.topic(), partition.partition()));
+            }
+
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            seekToReplayProgress(consumer, partitions);
+
+            long deadline = System.nanoTime() + REPLAY_TIMEOUT.toNanos();
+            int replayed = 0;
+            while (replayed < maxRecords && !reached(consumer, endOffsets)) {
+
+                if (System.nanoTime() - deadline >= 0) {
+                    log.warn("Replay of [{}] stopped at its deadline before reaching the end of the topic.", dltTopic);
+                    break;
+                }
+
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    // records dead-lettered after the replay started are left for the next one
+                    if (replayed == maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+
+                    sends.add(replayTemplate.send(toOriginal(record, dltTopic)));
+                    offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+
+                if (!sends.isEmpty()) {
+                    CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+                    consumer.commitSync(offsets);
+                }
+            }
+
+            log.info("---Replayed %d dead letters from [%s].".formatted(replayed, dltTopic));
+
+            return replayed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay of [%s] was interrupted.".formatted(dltTopic), e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Replay of [%s] failed: %s".formatted(dltTopic, e.getMessage()), e);
+        }
+    }
+
+    private static ConsumerFactory<byte[], byte[]> consumerFactory(KafkaProperties kafkaProperties) {
+
+        Map<String, Object> consumerProperties = kafkaProperties.buildConsumerProperties(null);
+        consumerProperties.put(ConsumerConfig.GROUP_ID_CONFIG, REPLAY_GROUP_ID);
+        consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        return new DefaultKafkaConsumerFactory<>(consumerProperties, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    /**
+     * Resumes each partition after the last record a previous replay committed, or from its beginning.
+     */
+    private static void seekToReplayProgress(Consumer<byte[], byte[]> consumer, List<TopicPartition> partitions) {
+
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        List<TopicPartition> fromBeginning = new ArrayList<>();
+
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset);
+            } else {
+                fromBeginning.add(partition);
+            }
+        }
+
+        consumer.seekToBeginning(fromBeginning);
+    }
+
+    private static boolean reached(Consumer<byte[], byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ProducerRecord<byte[], byte[]> toOriginal(ConsumerRecord<byte[], byte[]> record, String dltTopic) {
+
+        Iterator<Header> originalTopics = record.headers().headers(KafkaHeaders.DLT_ORIGINAL_TOPIC).iterator();
+        String originalTopic = originalTopics.hasNext()
+                ? new String(originalTopics.next().value(), StandardCharsets.UTF_8)
+                : dltTopic.substring(0, dltTopic.length() - DLT_SUFFIX.length());
+
+        ProducerRecord<byte[], byte[]> replay = new ProducerRecord<>(originalTopic, record.key(), record.value());
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(KafkaHeaders.PREFIX)) {
+                replay.headers().add(header);
+            }
+        }
+
+        return replay;
+    }
+
+    private static Properties maxRecordsProperties(int maxRecords) {
+
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(maxRecords, 500)));
+        return properties;
+    }
+}
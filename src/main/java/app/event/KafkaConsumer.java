@@ -1,15 +1,51 @@
 package app.event;
 
 import app.event.payload.UserRegisteredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
 @Component
 public class KafkaConsumer {
 
-    @KafkaListener(topics = "user-registered-event.v1", groupId = "notification-age-svc")
+    /**
+     * Failures are retried on delayed {@code -retry-N} topics so the main partition keeps flowing;
+     * payloads that cannot be deserialized skip the retries and go straight to {@code -dlt}.
+     */
+    @RetryableTopic(
+            attempts = "4",
+            backoff = @Backoff(delay = 1000, multiplier = 3.0, maxDelay = 30000),
+            kafkaTemplate = "dltKafkaTemplate",
+            dltStrategy = DltStrategy.FAIL_ON_ERROR)
+    @KafkaListener(id = "user-registered", topics = "user-registered-event.v1", groupId = "notification-age-svc")
     public void consumeEvent(UserRegisteredEvent event) {
 
         System.out.printf("Processed event for user with id=[%s]".formatted(event.getUserId()));
     }
-}
\ No newline at end of file
+
+    @DltHandler
+    public void consumeDeadLetter(ConsumerRecord<String, Object> record) {
+
+        log.error("Dead-lettered record on [{}] offset=[{}]: {} {}",
+                record.topic(),
+                record.offset(),
+                header(record, KafkaHeaders.DLT_EXCEPTION_FQCN),
+                header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package app.event;
+
+import app.exception.InvalidNotificationRequestException;
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class NotificationRequestConsumer {
+
+    private static final LogAccessor LOG = new LogAccessor(NotificationRequestConsumer.class);
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public NotificationRequestConsumer(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Offsets are committed only once the whole batch is stored; delivery continues asynchronously.
+     * When a record failed deserialization or lacks a field the notification table requires, the records before
+     * it are stored and the bad one is reported so the error handler can dead-letter it and redeliver the
+     * remainder of the batch.
+     */
+    @KafkaListener(id = "notification-requests", topics = "notification-requested.v1", groupId = "notification-age-svc", containerFactory = "notificationRequestListenerFactory")
+    public void consumeRequests(List<ConsumerRecord<String, NotificationRequest>> records, Acknowledgment acknowledgment) {
+
+        List<NotificationRequest> payloads = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, NotificationRequest> record : records) {
+
+            if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                accept(payloads);
+                // the DeserializationException cause tells the error handler not to retry the record
+                DeserializationException cause = SerializationUtils.getExceptionFromHeader(record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG);
+                throw new BatchListenerFailedException("Undeserializable notification request", cause, record);
+            }
+
+            if (record.value() == null) {
+                continue;
+            }
+
+            String missing = missingField(record.value());
+            if (missing != null) {
+                accept(payloads);
+                InvalidNotificationRequestException cause = new InvalidNotificationRequestException("Notification request without %s.".formatted(missing));
+                throw new BatchListenerFailedException("Invalid notification request", cause, record);
+            }
+
+            payloads.add(record.value());
+        }
+
+        accept(payloads);
+        acknowledgment.acknowledge();
+    }
+
+    private static String missingField(NotificationRequest request) {
+
+        if (request.getUserId() == null) {
+            return "userId";
+        }
+        if (request.getSubject() == null || request.getSubject().isBlank()) {
+            return "subject";
+        }
+        if (request.getBody() == null || request.getBody().isBlank()) {
+            return "body";
+        }
+
+        return null;
+    }
+
+    private void accept(List<NotificationRequest> payloads) {
+
+        if (!payloads.isEmpty()) {
+            notificationService.accept(payloads);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package app.event;
+
+import app.event.payload.NotificationStatusEvent;
+import app.model.OutboxEvent;
+import app.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to {@code notification-status.v1}, keyed by userId so each user's events share a partition.
+ * Rows are deleted only after the broker acknowledged the whole batch, which makes delivery at-least-once.
+ * <p>
+ * Events are not guaranteed to arrive in order per user. Each replica's relay claims its own batch with
+ * {@code SKIP LOCKED}, so one replica can publish a user's later event while another still holds an earlier one,
+ * and a failed batch is sent again in full. Consumers must tolerate duplicates and order a user's events by
+ * {@code occurredOn} rather than by arrival.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String TOPIC = "notification-status.v1";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       @Value("${notification.outbox.batch-size:500}") int batchSize,
+                       @Value("${notification.outbox.send-timeout-ms:10000}") long sendTimeoutMillis) {
+
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:500}")
+    public void publishPending() {
+
+        List<OutboxEvent> events = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<?>[] sends = events
+                .stream()
+                .map(event -> kafkaTemplate.send(TOPIC, event.getUserId().toString(), toPayload(event)))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("Failed to publish {} status events, will retry: {}", events.size(), e.getMessage());
+            return;
+        }
+
+        outboxEventRepository.deleteAllInBatch(events);
+    }
+
+    private NotificationStatusEvent toPayload(OutboxEvent event) {
+
+        return NotificationStatusEvent.builder()
+                .notificationId(event.getNotificationId())
+                .userId(event.getUserId())
+                .transition(event.getTransition())
+                .status(event.getStatus())
+                .type(event.getType())
+                .occurredOn(event.getCreatedOn())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package app.event;
+
+import app.model.SuppressionReason;
+import app.suppression.SuppressionList;
+import app.web.dto.SuppressionRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes bounce and complaint events relayed from the mail provider. Every replica keeps recent additions in
+ * its own {@link SuppressionList}, so the topic's partition is assigned to each replica instead of being shared
+ * out by a consumer group; recording an address that is already in the table again is a no-op.
+ * <p>
+ * The assignment commits to its own group, which nothing subscribes with, so a restarted replica resumes
+ * where the replicas last got to rather than skipping events published while all of them were down.
+ */
+@Slf4j
+@Component
+public class SuppressionEventConsumer {
+
+    private final SuppressionList suppressionList;
+
+    @Autowired
+    public SuppressionEventConsumer(SuppressionList suppressionList) {
+        this.suppressionList = suppressionList;
+    }
+
+    @KafkaListener(groupId = "notification-age-svc-suppressions",
+            topicPartitions = @TopicPartition(topic = "notification-suppressions.v1", partitions = "0"),
+            properties = {
+                    "spring.json.value.default.type=app.web.dto.SuppressionRequest",
+                    "spring.json.use.type.headers=false"
+            })
+    public void consume(SuppressionRequest event) {
+
+        if (event.getAddress() == null || event.getAddress().isBlank()) {
+            log.warn("Ignored suppression event without an address.");
+            return;
+        }
+
+        suppressionList.suppress(event.getAddress(), event.getReason() != null ? event.getReason() : SuppressionReason.BOUNCE);
+    }
+}
@@ -0,0 +1,31 @@
+package app.event.payload;
+
+import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationStatusEvent {
+
+    private UUID notificationId;
+
+    private UUID userId;
+
+    private NotificationTransition transition;
+
+    private NotificationStatus status;
+
+    private NotificationType type;
+
+    private LocalDateTime occurredOn;
+}
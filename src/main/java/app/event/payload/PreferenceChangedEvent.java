@@ -0,0 +1,29 @@
+package app.event.payload;
+
+import app.model.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PreferenceChangedEvent {
+
+    private UUID userId;
+
+    private NotificationType type;
+
+    private boolean enabled;
+
+    private String contactInfo;
+
+    private LocalDateTime updatedOn;
+
+    private long version;
+}
@@ -0,0 +1,8 @@
+package app.exception;
+
+public class InvalidAttachmentException extends RuntimeException {
+
+    public InvalidAttachmentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package app.exception;
+
+public class InvalidNotificationRequestException extends RuntimeException {
+
+    public InvalidNotificationRequestException(String message) {
+        super(message);
+    }
+}
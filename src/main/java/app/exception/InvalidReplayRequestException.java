@@ -0,0 +1,8 @@
+package app.exception;
+
+public class InvalidReplayRequestException extends RuntimeException {
+
+    public InvalidReplayRequestException(String message) {
+        super(message);
+    }
+}
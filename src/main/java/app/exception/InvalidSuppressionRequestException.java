@@ -0,0 +1,8 @@
+package app.exception;
+
+public class InvalidSuppressionRequestException extends RuntimeException {
+
+    public InvalidSuppressionRequestException(String message) {
+        super(message);
+    }
+}
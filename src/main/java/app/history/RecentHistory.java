@@ -0,0 +1,194 @@
+package app.history;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.web.dto.NotificationResponse;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ring buffer of one user's most recent notifications, newest by {@code createdOn} last, kept as parallel
+ * primitive arrays rather than one object per entry. It is complete while it holds all of the user's
+ * non-deleted notifications, i.e. until an entry had to be dropped for a newer one. Not thread-safe;
+ * {@link RecentHistoryCache} guards it.
+ */
+final class RecentHistory {
+
+    private static final NotificationStatus[] STATUSES = NotificationStatus.values();
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    // ring object, array headers and the cache's map entry
+    private static final int FIXED_BYTES = 160;
+    // two id halves, createdOn, status, type and the subject reference
+    private static final int SLOT_BYTES = 8 + 8 + 8 + 1 + 1 + 8;
+    private static final int STRING_BYTES = 40;
+
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final long[] createdOnMicros;
+    private final byte[] statuses;
+    private final byte[] types;
+    private final String[] subjects;
+    private final long loadedAtNanos;
+
+    private int next;
+    private int size;
+    private long subjectBytes;
+    private boolean complete = true;
+
+    RecentHistory(int capacity, long loadedAtNanos) {
+
+        this.loadedAtNanos = loadedAtNanos;
+        idHigh = new long[capacity];
+        idLow = new long[capacity];
+        createdOnMicros = new long[capacity];
+        statuses = new byte[capacity];
+        types = new byte[capacity];
+        subjects = new String[capacity];
+    }
+
+    /**
+     * Adds a new notification at its {@code createdOn} position. When full, the oldest entry is dropped, or the
+     * new one if it is older than every entry.
+     */
+    void add(Notification notification) {
+
+        long createdOn = toMicros(notification.getCreatedOn());
+        int capacity = subjects.length;
+
+        // entries newer than the new one move up a slot; rows usually commit in order, so this is mostly 0
+        int newer = 0;
+        while (newer < size && createdOnMicros[Math.floorMod(next - 1 - newer, capacity)] > createdOn) {
+            newer++;
+        }
+
+        if (size == capacity) {
+            complete = false;
+            if (newer == size) {
+                return;
+            }
+            subjectBytes -= STRING_BYTES + subjects[next].length();
+        }
+
+        for (int i = 0; i < newer; i++) {
+            int from = Math.floorMod(next - 1 - i, capacity);
+            copy(from, (from + 1) % capacity);
+        }
+
+        int slot = Math.floorMod(next - newer, capacity);
+        idHigh[slot] = notification.getId().getMostSignificantBits();
+        idLow[slot] = notification.getId().getLeastSignificantBits();
+        createdOnMicros[slot] = createdOn;
+        statuses[slot] = (byte) notification.getStatus().ordinal();
+        types[slot] = (byte) notification.getType().ordinal();
+        subjects[slot] = notification.getSubject();
+        subjectBytes += STRING_BYTES + notification.getSubject().length();
+
+        next = (next + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+    }
+
+    /**
+     * Returns false if no entry has this id, e.g. because it is older than the buffer.
+     */
+    boolean update(UUID id, NotificationStatus status, NotificationType type) {
+
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+
+        for (int i = 0; i < size; i++) {
+            if (idHigh[i] == high && idLow[i] == low) {
+                statuses[i] = (byte) status.ordinal();
+                types[i] = (byte) type.ordinal();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    void clear() {
+
+        Arrays.fill(subjects, null);
+        next = 0;
+        size = 0;
+        subjectBytes = 0;
+        complete = true;
+    }
+
+    /**
+     * Marks the buffer as possibly missing older notifications, e.g. because its load hit the row limit.
+     */
+    void markIncomplete() {
+        complete = false;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    Set<UUID> ids() {
+
+        Set<UUID> ids = new HashSet<>(size * 2);
+        for (int i = 1; i <= size; i++) {
+            int slot = Math.floorMod(next - i, subjects.length);
+            ids.add(new UUID(idHigh[slot], idLow[slot]));
+        }
+
+        return ids;
+    }
+
+    List<NotificationResponse> newestFirst() {
+
+        List<NotificationResponse> responses = new ArrayList<>(size);
+
+        for (int i = 1; i <= size; i++) {
+            int slot = Math.floorMod(next - i, subjects.length);
+            responses.add(NotificationResponse.builder()
+                    .subject(subjects[slot])
+                    .createdOn(fromMicros(createdOnMicros[slot]))
+                    .status(STATUSES[statuses[slot]])
+                    .type(TYPES[types[slot]])
+                    .build());
+        }
+
+        return responses;
+    }
+
+    /**
+     * {@link System#nanoTime()} when the buffer was read from the database; writes applied since do not move it.
+     */
+    long loadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    long weight() {
+        return FIXED_BYTES + (long) SLOT_BYTES * subjects.length + subjectBytes;
+    }
+
+    private void copy(int from, int to) {
+
+        idHigh[to] = idHigh[from];
+        idLow[to] = idLow[from];
+        createdOnMicros[to] = createdOnMicros[from];
+        statuses[to] = statuses[from];
+        types[to] = types[from];
+        subjects[to] = subjects[from];
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,215 @@
+package app.history;
+
+import app.config.HistoryCacheProperties;
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.web.dto.NotificationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Most recent notifications of recently active users, answering history reads without a query. A user's buffer
+ * holds up to {@code notification.history.entries-per-user} notifications; callers read anything older from
+ * the table when the buffer reports itself incomplete.
+ * <p>
+ * Entries are kept current by the write path instead of being invalidated: new rows are added at their
+ * {@code createdOn} position, status changes are applied in place to entries still in the buffer and a
+ * delete-all empties the user's buffer. Users are evicted least recently used first
+ * once the estimated size passes {@code notification.history.max-memory}.
+ * <p>
+ * A read that misses loads from the database and only installs the result if no write for that user happened
+ * meanwhile, so a slow load cannot overwrite a newer write with stale rows.
+ * <p>
+ * The cache is per replica and only sees this replica's writes. A delete-all or a status change made elsewhere
+ * (another replica's request, the outbox relay, the scheduler, a retry) is not applied here, so every buffer is
+ * reloaded once it is older than {@code notification.history.ttl}, which bounds how stale a read can be.
+ */
+@Component
+public class RecentHistoryCache {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final int entriesPerUser;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<UUID, RecentHistory> users = new LinkedHashMap<>(1024, 0.75f, true);
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+
+    private long weight;
+
+    @Autowired
+    public RecentHistoryCache(HistoryCacheProperties properties, MeterRegistry meterRegistry) {
+
+        this.entriesPerUser = properties.getEntriesPerUser();
+        this.maxWeight = properties.getMaxMemory().toBytes();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.hits = meterRegistry.counter("notification.history.cache", "result", "hit");
+        this.misses = meterRegistry.counter("notification.history.cache", "result", "miss");
+
+        Gauge.builder("notification.history.cache.users", this, RecentHistoryCache::userCount).register(meterRegistry);
+        Gauge.builder("notification.history.cache.bytes", this, RecentHistoryCache::estimatedBytes).register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's most recent notifications, newest first. On a miss {@code loader} is called with the
+     * number of rows to read and must return the user's newest rows, newest first.
+     */
+    public Recent get(UUID userId, IntFunction<List<Notification>> loader) {
+
+        lock.lock();
+        try {
+            RecentHistory history = users.get(userId);
+            if (history != null && !expired(history)) {
+                hits.increment();
+                return recent(history);
+            }
+            if (history != null) {
+                users.remove(userId);
+                weight -= history.weight();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+
+        long version = versions.get(stripe(userId));
+        long loadedAt = System.nanoTime();
+        // one row more than fits tells whether the user has older notifications than the buffer holds
+        List<Notification> recent = loader.apply(entriesPerUser + 1);
+
+        RecentHistory loaded = new RecentHistory(entriesPerUser, loadedAt);
+        for (ListIterator<Notification> iterator = recent.listIterator(Math.min(recent.size(), entriesPerUser)); iterator.hasPrevious(); ) {
+            loaded.add(iterator.previous());
+        }
+        if (recent.size() > entriesPerUser) {
+            loaded.markIncomplete();
+        }
+
+        lock.lock();
+        try {
+            if (versions.get(stripe(userId)) == version && !users.containsKey(userId)) {
+                users.put(userId, loaded);
+                weight += loaded.weight();
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return recent(loaded);
+    }
+
+    /**
+     * Adds newly inserted notifications to their users' buffers.
+     */
+    public void created(Collection<Notification> notifications) {
+
+        for (Notification notification : notifications) {
+            apply(notification.getUserId(), history -> history.add(notification));
+        }
+    }
+
+    /**
+     * Applies the new state of existing notifications. One that is no longer in its user's buffer is older than
+     * every entry and is left to the table.
+     */
+    public void updated(Collection<Notification> notifications) {
+
+        for (Notification notification : notifications) {
+            apply(notification.getUserId(), history -> history.update(notification.getId(), notification.getStatus(), notification.getType()));
+        }
+    }
+
+    public void statusChanged(UUID userId, Collection<UUID> notificationIds, NotificationStatus status, NotificationType type) {
+
+        apply(userId, history -> notificationIds.forEach(id -> history.update(id, status, type)));
+    }
+
+    public void deletedAll(UUID userId) {
+
+        apply(userId, RecentHistory::clear);
+    }
+
+    int userCount() {
+
+        lock.lock();
+        try {
+            return users.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long estimatedBytes() {
+
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(UUID userId, Consumer<RecentHistory> change) {
+
+        // bump first, so a load that started before this write will not install
+        versions.incrementAndGet(stripe(userId));
+
+        lock.lock();
+        try {
+            RecentHistory history = users.get(userId);
+            if (history == null) {
+                return;
+            }
+
+            long before = history.weight();
+            change.accept(history);
+            weight += history.weight() - before;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Recent recent(RecentHistory history) {
+        return new Recent(history.newestFirst(), history.isComplete(), history.isComplete() ? Set.of() : history.ids());
+    }
+
+    private boolean expired(RecentHistory history) {
+        return System.nanoTime() - history.loadedAtNanos() >= ttlNanos;
+    }
+
+    private void evict() {
+
+        Iterator<RecentHistory> eldest = users.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(UUID userId) {
+        return Math.floorMod(userId.hashCode(), VERSION_STRIPES);
+    }
+
+    /**
+     * The buffered notifications, newest first. When not {@code complete} the user may have older ones, which
+     * are the non-deleted rows not in {@code ids} and no newer than the last entry.
+     */
+    public record Recent(List<NotificationResponse> newestFirst, boolean complete, Set<UUID> ids) {
+    }
+}
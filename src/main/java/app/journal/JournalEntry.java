@@ -0,0 +1,60 @@
+package app.journal;
+
+import app.model.Notification;
+import app.model.NotificationPriority;
+import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serialized form of a journaled {@link Notification}, including the id it was acknowledged with.
+ */
+record JournalEntry(UUID id,
+                    String subject,
+                    String body,
+                    String htmlBody,
+                    List<String> attachments,
+                    LocalDateTime createdOn,
+                    NotificationStatus status,
+                    NotificationType type,
+                    NotificationPriority priority,
+                    UUID userId,
+                    NotificationTransition transition) {
+
+    static JournalEntry of(Notification notification, NotificationTransition transition) {
+
+        return new JournalEntry(
+                notification.getId(),
+                notification.getSubject(),
+                notification.getBody(),
+                notification.getHtmlBody(),
+                notification.getAttachments(),
+                notification.getCreatedOn(),
+                notification.getStatus(),
+                notification.getType(),
+                notification.getPriority(),
+                notification.getUserId(),
+                transition);
+    }
+
+    Notification toNotification() {
+
+        return Notification.builder()
+                .id(id)
+                .subject(subject)
+                .body(body)
+                .htmlBody(htmlBody)
+                .attachments(attachments)
+                .createdOn(createdOn)
+                .status(status)
+                .type(type)
+                .priority(priority)
+                .userId(userId)
+                .deleted(false)
+                .build();
+    }
+}
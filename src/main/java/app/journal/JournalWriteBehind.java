@@ -0,0 +1,363 @@
+package app.journal;
+
+import app.config.JournalProperties;
+import app.model.JournalCheckpoint;
+import app.model.Notification;
+import app.model.NotificationTransition;
+import app.repository.JournalCheckpointRepository;
+import app.service.NotificationStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind path for notifications that will not change again after they are stored. {@link #append}
+ * returns once the entry is fsynced to the local {@link NotificationJournal}; a background drain writes the
+ * entries to the database in large batches and records the last drained sequence in a {@link JournalCheckpoint}
+ * within the same transaction. On startup the journal is replayed and everything past the checkpoint is drained
+ * again, so each entry reaches the database exactly once.
+ * <p>
+ * Entries get their id before they are journaled and are checked against the table's not-null columns, so
+ * an acknowledged notification can always be inserted. If a batch still fails, it is retried row by row: a row
+ * the database rejects for its content is appended to {@code quarantine.ndjson} in the journal directory and
+ * skipped, while any other failure stops the drain until the next attempt. Reads and bulk updates of a user's
+ * notifications call {@link #flush} first, as the user's journaled rows are not in the database yet.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.journal", name = "enabled", havingValue = "true")
+public class JournalWriteBehind {
+
+    private final NotificationStore notificationStore;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final JournalProperties properties;
+    private final String journalId;
+    private final NotificationJournal journal;
+    private final Path quarantineFile;
+    private final ConcurrentSkipListMap<Long, JournalEntry> backlog = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Long> lastSequenceByUser = new ConcurrentHashMap<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private volatile boolean ready;
+
+    @Autowired
+    public JournalWriteBehind(NotificationStore notificationStore,
+                              JournalCheckpointRepository checkpointRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              JournalProperties properties) throws IOException {
+
+        this.notificationStore = notificationStore;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        Path directory = Path.of(properties.getDirectory());
+        this.journalId = journalIdOf(directory);
+        this.quarantineFile = directory.resolve("quarantine.ndjson");
+        this.journal = NotificationJournal.open(
+                directory,
+                (int) properties.getSegmentSize().toBytes(),
+                properties.getGroupCommitInterval(),
+                record -> index(record.sequence(), decode(record.payload())));
+    }
+
+    /**
+     * Assigns the notification its id, journals it and waits for it to be durable. Returns false without
+     * journaling when the backlog is full or the notification could not be stored as is, in which case the
+     * caller should write the row itself.
+     */
+    public boolean append(Notification notification, NotificationTransition transition) {
+
+        if (backlog.size() >= properties.getMaxBacklog() || !storable(notification)) {
+            return false;
+        }
+
+        if (notification.getId() == null) {
+            notification.setId(UUID.randomUUID());
+        }
+
+        JournalEntry entry = JournalEntry.of(notification, transition);
+        long sequence = journal.append(encode(entry), assigned -> index(assigned, entry));
+
+        try {
+            journal.durable(sequence).get(properties.getAppendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal sequence %d.".formatted(sequence), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Journal sequence %d was not made durable.".formatted(sequence), e);
+        }
+
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        drainLock.lock();
+        try {
+            if (ready) {
+                return;
+            }
+
+            long checkpoint = checkpointRepository.findById(journalId)
+                    .map(JournalCheckpoint::getSequence)
+                    .orElse(0L);
+
+            backlog.headMap(checkpoint, true).clear();
+            lastSequenceByUser.values().removeIf(sequence -> sequence <= checkpoint);
+            ready = true;
+
+            log.info("---Journal [%s] resumed after sequence %d with %d entries to drain.".formatted(journalId, checkpoint, backlog.size()));
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.journal.drain-interval:100ms}")
+    public void drain() {
+
+        if (!ready) {
+            return;
+        }
+
+        drainLock.lock();
+        try {
+            while (drainBatch(Long.MAX_VALUE) == properties.getDrainBatchSize()) {
+                // keep going while the backlog holds full batches
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Drains the journal up to the user's last journaled notification, so the database holds every notification
+     * acknowledged for the user. Entries drain in sequence order, so earlier entries of other users go too.
+     */
+    public void flush(UUID userId) {
+
+        Long last = lastSequenceByUser.get(userId);
+        if (last == null) {
+            return;
+        }
+
+        start();
+
+        drainLock.lock();
+        try {
+            while (!backlog.isEmpty() && backlog.firstKey() <= last) {
+                drainBatch(last);
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Could not drain the journal on shutdown, it will be replayed on the next start.", e);
+        }
+
+        journal.close();
+    }
+
+    int backlogSize() {
+        return backlog.size();
+    }
+
+    /**
+     * Writes up to one batch of entries with sequence at most {@code through}. Must hold the drain lock.
+     */
+    private int drainBatch(long through) {
+
+        List<Map.Entry<Long, JournalEntry>> batch = new ArrayList<>(properties.getDrainBatchSize());
+        for (Map.Entry<Long, JournalEntry> entry : backlog.headMap(through, true).entrySet()) {
+            if (batch.size() == properties.getDrainBatchSize()) {
+                break;
+            }
+            batch.add(entry);
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            drainOneByOne(batch, e);
+        }
+
+        return batch.size();
+    }
+
+    /**
+     * Retries a failed batch one entry per transaction. Entries the database rejects are quarantined and
+     * checkpointed past; any other failure is rethrown, leaving the entry and those after it for the next drain.
+     */
+    private void drainOneByOne(List<Map.Entry<Long, JournalEntry>> batch, RuntimeException batchFailure) {
+
+        log.warn("Journal batch of %d entries failed, retrying them one by one.".formatted(batch.size()), batchFailure);
+
+        for (Map.Entry<Long, JournalEntry> entry : batch) {
+            try {
+                write(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                quarantine(entry.getKey(), entry.getValue(), e);
+            }
+        }
+    }
+
+    private void write(List<Map.Entry<Long, JournalEntry>> entries) {
+
+        long last = entries.get(entries.size() - 1).getKey();
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            entries.stream()
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.groupingBy(JournalEntry::transition,
+                            Collectors.mapping(JournalEntry::toNotification, Collectors.toList())))
+                    .forEach((transition, notifications) -> notificationStore.saveAll(notifications, transition));
+
+            checkpoint(last);
+        });
+
+        drained(entries);
+    }
+
+    private void quarantine(long sequence, JournalEntry entry, DataIntegrityViolationException failure) {
+
+        String error = String.valueOf(failure.getMostSpecificCause().getMessage());
+
+        try {
+            String line = objectMapper.writeValueAsString(new QuarantinedEntry(sequence, error, entry)) + "\n";
+            Files.writeString(quarantineFile, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> checkpoint(sequence));
+        drained(List.of(Map.entry(sequence, entry)));
+
+        log.error("Quarantined journal sequence %d for user with id=[%s] in [%s]: %s".formatted(sequence, entry.userId(), quarantineFile, error));
+    }
+
+    private void checkpoint(long sequence) {
+
+        checkpointRepository.save(JournalCheckpoint.builder()
+                .journalId(journalId)
+                .sequence(sequence)
+                .build());
+    }
+
+    private void drained(List<Map.Entry<Long, JournalEntry>> entries) {
+
+        long last = entries.get(entries.size() - 1).getKey();
+
+        for (Map.Entry<Long, JournalEntry> entry : entries) {
+            if (entry.getValue().userId() != null) {
+                lastSequenceByUser.remove(entry.getValue().userId(), entry.getKey());
+            }
+        }
+
+        backlog.headMap(last, true).clear();
+        journal.deleteThrough(last);
+    }
+
+    private void index(long sequence, JournalEntry entry) {
+
+        backlog.put(sequence, entry);
+        if (entry.userId() != null) {
+            lastSequenceByUser.put(entry.userId(), sequence);
+        }
+    }
+
+    /**
+     * Mirrors the not-null columns of the notifications table, plus the user the entry is flushed by.
+     */
+    private static boolean storable(Notification notification) {
+
+        return notification.getUserId() != null
+                && notification.getSubject() != null
+                && notification.getBody() != null
+                && notification.getCreatedOn() != null
+                && notification.getStatus() != null
+                && notification.getType() != null;
+    }
+
+    private byte[] encode(JournalEntry entry) {
+
+        try {
+            return objectMapper.writeValueAsBytes(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JournalEntry decode(byte[] payload) {
+
+        try {
+            return objectMapper.readValue(payload, JournalEntry.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Identifies this journal directory across restarts, so replicas sharing a database keep separate checkpoints.
+     */
+    private static String journalIdOf(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+        Path idFile = directory.resolve("journal.id");
+
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        }
+
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+
+        return id;
+    }
+
+    private record QuarantinedEntry(long sequence, String error, JournalEntry entry) {
+    }
+}
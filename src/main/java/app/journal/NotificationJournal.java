@@ -0,0 +1,413 @@
+package app.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records over memory-mapped segment files.
+ * <p>
+ * Each record is {@code [int length][int crc32c][long sequence][payload]}, with the checksum covering sequence
+ * and payload. Appends only copy into the mapped segment; a flusher thread forces the segment to disk once per
+ * group-commit interval and completes the {@link #durable} futures of every record it covered. When a segment
+ * is full it is forced and a new one is started, named after its first sequence.
+ * <p>
+ * On {@link #open} all segments are scanned in order. The first record with a bad length, checksum or sequence
+ * is treated as a torn tail from a crash: the rest of that segment is zeroed and any later segments are removed,
+ * so appends continue right after the last intact record.
+ */
+@Slf4j
+public class NotificationJournal implements AutoCloseable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final ConcurrentSkipListMap<Long, CompletableFuture<Void>> waiters = new ConcurrentSkipListMap<>();
+    private final Thread flusher;
+
+    private Segment active;
+    private long nextSequence = 1;
+    private long writtenSequence;
+    private volatile long durableSequence;
+    private volatile boolean running = true;
+
+    private NotificationJournal(Path directory, int segmentSize, Duration groupCommitInterval) {
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitNanos = groupCommitInterval.toNanos();
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens or creates the journal in {@code directory}, handing every intact record to {@code replay}
+     * in sequence order before returning.
+     */
+    public static NotificationJournal open(Path directory, int segmentSize, Duration groupCommitInterval, Consumer<Record> replay) throws IOException {
+
+        Files.createDirectories(directory);
+
+        NotificationJournal journal = new NotificationJournal(directory, segmentSize, groupCommitInterval);
+        journal.recover(replay);
+        journal.flusher.start();
+
+        return journal;
+    }
+
+    /**
+     * Writes the record into the mapped segment without waiting for the disk. {@code onSequence} runs under the
+     * append lock, so callers can index records in sequence order.
+     */
+    public long append(byte[] payload, LongConsumer onSequence) {
+
+        int recordSize = HEADER_BYTES + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of %d bytes does not fit a %d byte segment.".formatted(recordSize, segmentSize));
+        }
+
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Journal is closed.");
+            }
+
+            if (active.buffer.remaining() < recordSize) {
+                roll();
+            }
+
+            long sequence = nextSequence++;
+            active.buffer
+                    .putInt(payload.length)
+                    .putInt(checksum(sequence, payload))
+                    .putLong(sequence)
+                    .put(payload);
+            active.lastSequence = sequence;
+            writtenSequence = sequence;
+
+            onSequence.accept(sequence);
+            appended.signal();
+
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes once the record with this sequence has been forced to disk.
+     */
+    public CompletableFuture<Void> durable(long sequence) {
+
+        if (sequence <= durableSequence) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> future = waiters.computeIfAbsent(sequence, ignored -> new CompletableFuture<>());
+        if (sequence <= durableSequence) {
+            waiters.remove(sequence);
+            future.complete(null);
+        }
+
+        return future;
+    }
+
+    /**
+     * Removes segments whose records all have a sequence up to and including {@code sequence}.
+     * The active segment is always kept.
+     */
+    public void deleteThrough(long sequence) {
+
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Long, Segment>> iterator = segments.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Segment segment = iterator.next().getValue();
+                if (segment == active || segment.lastSequence > sequence) {
+                    return;
+                }
+
+                segment.close();
+                Files.deleteIfExists(segment.path);
+                iterator.remove();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int segmentCount() {
+
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+
+        lock.lock();
+        try {
+            running = false;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+
+        while (true) {
+
+            Segment segment;
+            long target;
+
+            lock.lock();
+            try {
+                while (running && writtenSequence == durableSequence) {
+                    appended.awaitUninterruptibly();
+                }
+                if (writtenSequence == durableSequence) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // let concurrent appenders join this group before paying for the force
+            LockSupport.parkNanos(groupCommitNanos);
+
+            lock.lock();
+            try {
+                target = writtenSequence;
+                segment = active;
+            } finally {
+                lock.unlock();
+            }
+
+            // records in earlier segments were forced when the segment was rolled
+            segment.buffer.force();
+            durableSequence = target;
+
+            ConcurrentNavigableMap<Long, CompletableFuture<Void>> covered = waiters.headMap(target, true);
+            covered.values().forEach(future -> future.complete(null));
+            covered.clear();
+        }
+    }
+
+    private void roll() {
+
+        active.buffer.force();
+
+        try {
+            active = createSegment(nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover(Consumer<Record> replay) throws IOException {
+
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(NotificationJournal::firstSequenceOf))
+                    .toList();
+        }
+
+        boolean torn = false;
+
+        for (Path path : paths) {
+
+            long firstSequence = firstSequenceOf(path);
+            if (active == null) {
+                nextSequence = firstSequence;
+            }
+
+            if (torn || firstSequence != nextSequence) {
+                log.warn("Removing journal segment [{}] after a torn record.", path.getFileName());
+                Files.delete(path);
+                torn = true;
+                continue;
+            }
+
+            Segment segment = mapSegment(path, firstSequence);
+            segments.put(segment.firstSequence, segment);
+            active = segment;
+
+            torn = !scan(segment, replay);
+        }
+
+        if (active == null) {
+            active = createSegment(nextSequence);
+        }
+
+        writtenSequence = nextSequence - 1;
+        durableSequence = writtenSequence;
+    }
+
+    /**
+     * Replays the segment's records and leaves its buffer positioned after the last intact one.
+     * Returns false if the segment ended in a torn record.
+     */
+    private boolean scan(Segment segment, Consumer<Record> replay) {
+
+        ByteBuffer buffer = segment.buffer;
+        segment.lastSequence = segment.firstSequence - 1;
+
+        while (buffer.remaining() >= HEADER_BYTES) {
+
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+
+            if (length == 0) {
+                return true;
+            }
+
+            int crc = buffer.getInt(start + Integer.BYTES);
+            long sequence = buffer.getLong(start + Integer.BYTES * 2);
+
+            if (length < 0 || length > buffer.limit() - start - HEADER_BYTES || sequence != nextSequence) {
+                truncate(segment, start);
+                return false;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(start + HEADER_BYTES, payload);
+
+            if (checksum(sequence, payload) != crc) {
+                truncate(segment, start);
+                return false;
+            }
+
+            buffer.position(start + HEADER_BYTES + length);
+            segment.lastSequence = sequence;
+            nextSequence = sequence + 1;
+
+            replay.accept(new Record(sequence, payload));
+        }
+
+        return true;
+    }
+
+    private void truncate(Segment segment, int position) {
+
+        log.warn("Truncating torn journal tail in [{}] at offset {}.", segment.path.getFileName(), position);
+
+        ByteBuffer buffer = segment.buffer;
+        for (int i = position; i < buffer.limit(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        segment.buffer.force();
+        buffer.position(position);
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+
+        Segment segment = mapSegment(directory.resolve("%020d%s".formatted(firstSequence, SEGMENT_SUFFIX)), firstSequence);
+        segment.channel.force(true);
+        segment.lastSequence = firstSequence - 1;
+        segments.put(firstSequence, segment);
+
+        return segment;
+    }
+
+    private Segment mapSegment(Path path, long firstSequence) throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+        return new Segment(firstSequence, path, channel, buffer);
+    }
+
+    private static long firstSequenceOf(Path path) {
+
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+
+        return (int) crc.getValue();
+    }
+
+    public record Record(long sequence, byte[] payload) {
+    }
+
+    private static final class Segment {
+
+        private final long firstSequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private long lastSequence;
+
+        private Segment(long firstSequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+
+            this.firstSequence = firstSequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private void close() {
+
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close journal segment [{}].", path.getFileName(), e);
+            }
+        }
+    }
+}
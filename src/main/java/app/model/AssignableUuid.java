@@ -0,0 +1,39 @@
+package app.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.uuid.UuidGenerator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.UUID;
+
+/**
+ * Random UUID id that keeps a value the application already assigned, so a row can be given its id before
+ * it is inserted (e.g. a journaled notification acknowledged ahead of its insert).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@IdGeneratorType(AssignableUuid.Generator.class)
+public @interface AssignableUuid {
+
+    class Generator extends UuidGenerator {
+
+        public Generator() {
+            super(UUID.class);
+        }
+
+        @Override
+        public boolean allowAssignedIdentifiers() {
+            return true;
+        }
+
+        @Override
+        public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+            return currentValue != null ? currentValue : super.generate(session, owner, null, eventType);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package app.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal sequence written to the database for one local journal. Updated in the same transaction
+ * as the drained rows, so replay after a crash skips exactly what was already stored.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "journal_checkpoints")
+public class JournalCheckpoint {
+
+    @Id
+    private String journalId;
+
+    @Column(nullable = false)
+    private long sequence;
+}
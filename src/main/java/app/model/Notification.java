@@ -4,9 +4,14 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -14,11 +19,14 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "notifications")
-public class Notification {
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_status_send_at", columnList = "status, send_at"),
+        @Index(name = "idx_notifications_user_created_on", columnList = "user_id, created_on")
+})
+public class Notification implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @AssignableUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -27,6 +35,12 @@ public class Notification {
     @Column(nullable = false)
     private String body;
 
+    @Column(columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> attachments;
+
     @Column(nullable = false)
     private LocalDateTime createdOn;
 
@@ -38,7 +52,35 @@ public class Notification {
     @Enumerated(EnumType.STRING)
     private NotificationType type;
 
+    @Enumerated(EnumType.STRING)
+    private NotificationPriority priority;
+
+    private LocalDateTime sendAt;
+
     private UUID userId;
 
     private boolean deleted;
+
+    /**
+     * Status as last read from or written to the database; {@code null} until the row exists.
+     * Lets the write path tell which status a changed notification came from.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private NotificationStatus persistedStatus;
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedStatus() {
+        persistedStatus = status;
+    }
+
+    /**
+     * New until the row exists, even when the id was assigned up front, so saving inserts instead of merging.
+     */
+    @Override
+    public boolean isNew() {
+        return persistedStatus == null;
+    }
 }
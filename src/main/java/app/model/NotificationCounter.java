@@ -0,0 +1,37 @@
+package app.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Per-user notification counts, adjusted in the same transaction as every {@link Notification} write.
+ * {@code total} and {@code failed} cover non-deleted notifications only.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long failed;
+
+    @Column(nullable = false)
+    private long deleted;
+}
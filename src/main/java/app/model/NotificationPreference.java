@@ -36,4 +36,10 @@ public class NotificationPreference {
 
     @Column(nullable = false)
     private LocalDateTime updatedOn;
+
+    /**
+     * Incremented by every update, which orders changes in the preference view independently of replica clocks.
+     */
+    @Version
+    private long version;
 }
@@ -1,6 +1,9 @@
 package app.model;
 
 public enum NotificationStatus {
+    SCHEDULED,
+    PENDING,
     SUCCEEDED,
-    FAILED
+    FAILED,
+    SUPPRESSED
 }
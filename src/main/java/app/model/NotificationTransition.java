@@ -0,0 +1,10 @@
+package app.model;
+
+public enum NotificationTransition {
+    CREATED,
+    SUCCEEDED,
+    FAILED,
+    RETRIED,
+    DELETED,
+    SUPPRESSED
+}
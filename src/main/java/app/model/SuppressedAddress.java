@@ -0,0 +1,37 @@
+package app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A contact address that must not be sent to, e.g. after a hard bounce or a spam complaint.
+ * Addresses are stored normalized, see {@code SuppressionList#normalize}.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "suppressed_addresses")
+public class SuppressedAddress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(unique = true, nullable = false)
+    private String address;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SuppressionReason reason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,203 @@
+package app.preference;
+
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from userId to the preference fields sends need, kept as parallel primitive
+ * arrays keyed by the two halves of the UUID rather than one map entry and entity per user. Reads are
+ * lock-free optimistic reads that fall back to a read lock only when they raced a write.
+ */
+final class PreferenceTable {
+
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    private static final byte OCCUPIED = (byte) 0x80;
+    private static final byte ENABLED = 0x40;
+    private static final byte TYPE_MASK = 0x3F;
+
+    private static final double MAX_LOAD = 0.6;
+
+    private final StampedLock lock = new StampedLock();
+
+    private volatile Slots slots;
+    private int size;
+
+    PreferenceTable(int expectedUsers) {
+
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedUsers / MAX_LOAD)) - 1) << 1;
+        this.slots = new Slots(capacity);
+    }
+
+    /**
+     * The user's preference, or null when the table has none. The result is a detached copy without id or
+     * timestamps.
+     */
+    NotificationPreference get(UUID userId) {
+
+        long high = userId.getMostSignificantBits();
+        long low = userId.getLeastSignificantBits();
+
+        long stamp = lock.tryOptimisticRead();
+        NotificationPreference preference = stamp != 0 ? slots.find(userId, high, low) : null;
+
+        if (stamp != 0 && lock.validate(stamp)) {
+            return preference;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return slots.find(userId, high, low);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores the preference unless the table already holds a newer version for the user.
+     *
+     * @return whether the entry was written
+     */
+    boolean put(UUID userId, NotificationType type, boolean enabled, String contactInfo, long version) {
+
+        long high = userId.getMostSignificantBits();
+        long low = userId.getLeastSignificantBits();
+        byte flags = (byte) (OCCUPIED | (enabled ? ENABLED : 0) | type.ordinal());
+
+        long stamp = lock.writeLock();
+        try {
+            Slots current = slots;
+            int index = current.indexOf(high, low);
+
+            if (current.flags[index] != 0) {
+                if (current.versions[index] > version) {
+                    return false;
+                }
+                current.write(index, high, low, flags, contactInfo, version);
+                return true;
+            }
+
+            if (size + 1 > current.capacity() * MAX_LOAD) {
+                current = current.grow();
+                slots = current;
+                index = current.indexOf(high, low);
+            }
+
+            current.write(index, high, low, flags, contactInfo, version);
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static int hash(long high, long low) {
+
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * One generation of the arrays, swapped as a whole on growth so an optimistic reader never mixes
+     * arrays of different sizes.
+     */
+    private static final class Slots {
+
+        private final long[] idHigh;
+        private final long[] idLow;
+        private final long[] versions;
+        private final byte[] flags;
+        private final String[] contacts;
+
+        Slots(int capacity) {
+
+            idHigh = new long[capacity];
+            idLow = new long[capacity];
+            versions = new long[capacity];
+            flags = new byte[capacity];
+            contacts = new String[capacity];
+        }
+
+        int capacity() {
+            return flags.length;
+        }
+
+        /**
+         * Slot holding the id, or the empty slot where it would go.
+         */
+        int indexOf(long high, long low) {
+
+            int mask = flags.length - 1;
+            int index = hash(high, low) & mask;
+
+            while (flags[index] != 0 && (idHigh[index] != high || idLow[index] != low)) {
+                index = (index + 1) & mask;
+            }
+
+            return index;
+        }
+
+        NotificationPreference find(UUID userId, long high, long low) {
+
+            int mask = flags.length - 1;
+            int index = hash(high, low) & mask;
+
+            // bounded, so a probe that raced a write cannot spin; the caller re-reads under the lock
+            for (int probes = 0; probes < flags.length; probes++) {
+
+                byte slot = flags[index];
+                if (slot == 0) {
+                    return null;
+                }
+
+                if (idHigh[index] == high && idLow[index] == low) {
+                    return NotificationPreference.builder()
+                            .userId(userId)
+                            .type(TYPES[slot & TYPE_MASK])
+                            .enabled((slot & ENABLED) != 0)
+                            .contactInfo(contacts[index])
+                            .build();
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            return null;
+        }
+
+        void write(int index, long high, long low, byte slot, String contactInfo, long version) {
+
+            idHigh[index] = high;
+            idLow[index] = low;
+            versions[index] = version;
+            contacts[index] = contactInfo;
+            flags[index] = slot;
+        }
+
+        Slots grow() {
+
+            Slots grown = new Slots(flags.length << 1);
+
+            for (int i = 0; i < flags.length; i++) {
+                if (flags[i] != 0) {
+                    grown.write(grown.indexOf(idHigh[i], idLow[i]), idHigh[i], idLow[i], flags[i], contacts[i], versions[i]);
+                }
+            }
+
+            return grown;
+        }
+    }
+}
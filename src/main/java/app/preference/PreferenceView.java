@@ -0,0 +1,281 @@
+package app.preference;
+
+import app.config.PreferenceViewProperties;
+import app.event.payload.PreferenceChangedEvent;
+import app.model.NotificationPreference;
+import app.repository.NotificationPreferenceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local materialized view of all notification preferences, so sends resolve preferences without a query.
+ * Committed changes are published to the compacted {@code notification-preferences.v1} topic keyed by userId.
+ * Every replica reads all partitions of that topic from the beginning on startup, then keeps consuming it,
+ * which is how a change made on one replica reaches the others. Lookups fall back to the table until the
+ * initial replay has caught up, and for users the view does not hold.
+ * <p>
+ * Changes are ordered by the row's {@code @Version}, so an older change replayed late never overwrites a newer
+ * one whatever the replicas' clocks say. A publish that fails is retried from the current row until it succeeds.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.preferences.view", name = "enabled", havingValue = "true")
+public class PreferenceView {
+
+    public static final String TOPIC = "notification-preferences.v1";
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ConsumerFactory<String, PreferenceChangedEvent> consumerFactory;
+    private final PreferenceViewProperties properties;
+    private final PreferenceTable table;
+    private final Thread loader;
+    private final Set<UUID> unpublished = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = true;
+    private volatile boolean ready;
+    private volatile Consumer<String, PreferenceChangedEvent> consumer;
+
+    @Autowired
+    public PreferenceView(NotificationPreferenceRepository preferenceRepository,
+                          KafkaTemplate<String, Object> kafkaTemplate,
+                          KafkaProperties kafkaProperties,
+                          PreferenceViewProperties properties) {
+
+        this.preferenceRepository = preferenceRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.consumerFactory = consumerFactory(kafkaProperties);
+        this.properties = properties;
+        this.table = new PreferenceTable(properties.getExpectedUsers());
+        this.loader = new Thread(this::loadLoop, "preference-view");
+        this.loader.setDaemon(true);
+    }
+
+    /**
+     * The user's preference, or empty when the caller has to read the table: before the initial replay has
+     * caught up, or when the view has not seen the user yet.
+     */
+    public Optional<NotificationPreference> find(UUID userId) {
+
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(table.get(userId));
+    }
+
+    /**
+     * Applies the saved preferences to this replica's view and publishes them for the others, once the
+     * surrounding transaction commits, or right away outside a transaction.
+     */
+    public void publishAfterCommit(Collection<NotificationPreference> preferences) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(preferences);
+            return;
+        }
+
+        List<NotificationPreference> committed = List.copyOf(preferences);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(committed);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loader.start();
+    }
+
+    /**
+     * Re-publishes every row, which seeds the topic for preferences written before it existed and repairs
+     * changes whose publish failed. Compaction keeps the topic at one record per user regardless.
+     */
+    @Scheduled(cron = "${notification.preferences.view.republish-cron:0 0 4 * * *}")
+    public void republishAll() {
+
+        PageRequest page = PageRequest.of(0, properties.getRepublishPageSize(), Sort.by("userId"));
+        long published = 0;
+
+        Page<NotificationPreference> preferences;
+        do {
+            preferences = preferenceRepository.findAll(page);
+            publish(preferences.getContent());
+            published += preferences.getNumberOfElements();
+            page = page.next();
+        } while (preferences.hasNext());
+
+        log.info("---Republished %d preferences to [%s].".formatted(published, TOPIC));
+    }
+
+    /**
+     * Publishes the current row of every user whose last publish failed, so other replicas do not keep serving
+     * the previous preference until the nightly republish.
+     */
+    @Scheduled(fixedDelayString = "${notification.preferences.view.retry-backoff:5s}")
+    public void republishFailed() {
+
+        if (unpublished.isEmpty()) {
+            return;
+        }
+
+        List<UUID> userIds = List.copyOf(unpublished);
+        unpublished.removeAll(userIds);
+
+        publish(preferenceRepository.findAllByUserIdIn(userIds));
+    }
+
+    @PreDestroy
+    public void close() {
+
+        running = false;
+
+        Consumer<String, PreferenceChangedEvent> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+
+        try {
+            loader.join(properties.getPollTimeout().multipliedBy(4).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    void apply(PreferenceChangedEvent event) {
+
+        table.put(event.getUserId(), event.getType(), event.isEnabled(), event.getContactInfo(), event.getVersion());
+    }
+
+    private void publish(Collection<NotificationPreference> preferences) {
+
+        for (NotificationPreference preference : preferences) {
+
+            PreferenceChangedEvent event = PreferenceChangedEvent.builder()
+                    .userId(preference.getUserId())
+                    .type(preference.getType())
+                    .enabled(preference.isEnabled())
+                    .contactInfo(preference.getContactInfo())
+                    .updatedOn(preference.getUpdatedOn())
+                    .version(preference.getVersion())
+                    .build();
+
+            apply(event);
+
+            kafkaTemplate.send(TOPIC, event.getUserId().toString(), event).whenComplete((result, e) -> {
+                if (e != null) {
+                    unpublished.add(event.getUserId());
+                    log.error("Could not publish preference of user with id=[{}], retrying in {}.", event.getUserId(), properties.getRetryBackoff(), e);
+                }
+            });
+        }
+    }
+
+    private void loadLoop() {
+
+        while (running) {
+            try (Consumer<String, PreferenceChangedEvent> current = consumerFactory.createConsumer()) {
+
+                consumer = current;
+                consume(current);
+
+            } catch (WakeupException e) {
+                // close() woke the consumer up
+            } catch (RuntimeException e) {
+                log.error("Preference view consumer failed, reconnecting in {}.", properties.getRetryBackoff(), e);
+                sleep();
+            }
+        }
+    }
+
+    private void consume(Consumer<String, PreferenceChangedEvent> current) {
+
+        List<TopicPartition> partitions = Optional.ofNullable(current.partitionsFor(TOPIC))
+                .orElse(List.of())
+                .stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+
+        current.assign(partitions);
+        current.seekToBeginning(partitions);
+        Map<TopicPartition, Long> endOffsets = current.endOffsets(partitions);
+
+        while (running) {
+
+            for (ConsumerRecord<String, PreferenceChangedEvent> record : current.poll(properties.getPollTimeout())) {
+                // tombstones and records that failed deserialization carry no value
+                if (record.value() != null && record.value().getUserId() != null && record.value().getType() != null) {
+                    apply(record.value());
+                }
+            }
+
+            if (!ready && endOffsets.entrySet().stream().allMatch(end -> current.position(end.getKey()) >= end.getValue())) {
+                ready = true;
+                log.info("---Preference view caught up with [%s]: %d users.".formatted(TOPIC, table.size()));
+            }
+        }
+    }
+
+    private void sleep() {
+
+        try {
+            Thread.sleep(properties.getRetryBackoff().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Assigned partitions rather than a consumer group, since every replica needs every partition.
+     */
+    private static ConsumerFactory<String, PreferenceChangedEvent> consumerFactory(KafkaProperties kafkaProperties) {
+
+        Map<String, Object> consumerProperties = kafkaProperties.buildConsumerProperties(null);
+        consumerProperties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProperties,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(PreferenceChangedEvent.class, false)));
+    }
+}
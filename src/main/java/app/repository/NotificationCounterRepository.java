@@ -0,0 +1,59 @@
+package app.repository;
+
+import app.model.NotificationCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, UUID> {
+
+    @Modifying
+    @Query("update NotificationCounter c set c.total = c.total + :total, c.failed = c.failed + :failed, c.deleted = c.deleted + :deleted " +
+            "where c.userId = :userId")
+    int increment(@Param("userId") UUID userId,
+                  @Param("total") long total,
+                  @Param("failed") long failed,
+                  @Param("deleted") long deleted);
+
+    /**
+     * Creates the user's row with the {@code initial} counts, or adds the deltas if it already exists, e.g.
+     * because a concurrent transaction created it first. Rendered as {@code INSERT ... ON DUPLICATE KEY UPDATE}.
+     */
+    @Modifying
+    @Query("insert into NotificationCounter (userId, total, failed, deleted) values (:userId, :initialTotal, :initialFailed, :initialDeleted) " +
+            "on conflict(userId) do update set total = total + :total, failed = failed + :failed, deleted = deleted + :deleted")
+    int upsert(@Param("userId") UUID userId,
+               @Param("initialTotal") long initialTotal,
+               @Param("initialFailed") long initialFailed,
+               @Param("initialDeleted") long initialDeleted,
+               @Param("total") long total,
+               @Param("failed") long failed,
+               @Param("deleted") long deleted);
+
+    /**
+     * Like {@link #upsert}, but an existing row has all its notifications moved to deleted.
+     */
+    @Modifying
+    @Query("insert into NotificationCounter (userId, total, failed, deleted) values (:userId, :initialTotal, :initialFailed, :initialDeleted) " +
+            "on conflict(userId) do update set deleted = deleted + total, total = 0, failed = 0")
+    int upsertAllDeleted(@Param("userId") UUID userId,
+                         @Param("initialTotal") long initialTotal,
+                         @Param("initialFailed") long initialFailed,
+                         @Param("initialDeleted") long initialDeleted);
+
+    @Modifying
+    @Query("update NotificationCounter c set c.deleted = c.deleted + c.total, c.total = 0, c.failed = 0 where c.userId = :userId")
+    int moveAllToDeleted(@Param("userId") UUID userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from NotificationCounter c where c.userId = :userId")
+    Optional<NotificationCounter> findForUpdate(@Param("userId") UUID userId);
+}
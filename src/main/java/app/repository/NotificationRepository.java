@@ -1,14 +1,70 @@
 package app.repository;
 
 import app.model.Notification;
+import app.model.NotificationCounter;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
-    List<Notification> findByUserId(UUID userId);
+    List<Notification> findByUserIdAndDeletedFalse(UUID userId);
+
+    List<Notification> findByUserIdAndDeletedFalseOrderByCreatedOnDesc(UUID userId, Limit limit);
+
+    List<Notification> findByUserIdAndDeletedFalseAndCreatedOnLessThanEqualOrderByCreatedOnDesc(UUID userId, LocalDateTime createdOn);
+
+    List<Notification> findByUserIdAndStatusAndDeletedFalse(UUID userId, NotificationStatus status);
+
+    List<Notification> findAllByStatusAndSendAtBefore(NotificationStatus status, LocalDateTime sendAt);
+
+    /**
+     * Moves a scheduled, non-deleted notification to PENDING. Returns 0 when another replica already claimed it.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Notification n set n.status = app.model.NotificationStatus.PENDING " +
+            "where n.id = :id and n.status = app.model.NotificationStatus.SCHEDULED and n.deleted = false")
+    int claimScheduled(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update Notification n set n.deleted = true where n.userId = :userId and n.deleted = false")
+    int markDeletedByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Only non-deleted rows still in {@code from} change; {@link OutboxEventRepository#insertForStatusChange} records
+     * their events with the same predicate.
+     */
+    @Modifying
+    @Query("update Notification n set n.status = :status, n.type = :type where n.id in :ids and n.status = :from and n.deleted = false")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("from") NotificationStatus from,
+                     @Param("status") NotificationStatus status,
+                     @Param("type") NotificationType type);
+
+    /**
+     * Recounts one user's notifications from scratch; empty when the user has none.
+     */
+    @Query("select new app.model.NotificationCounter(n.userId, " +
+            "sum(case when n.deleted = false then 1 else 0 end), " +
+            "sum(case when n.deleted = false and n.status = app.model.NotificationStatus.FAILED then 1 else 0 end), " +
+            "sum(case when n.deleted = true then 1 else 0 end)) " +
+            "from Notification n where n.userId = :userId group by n.userId")
+    Optional<NotificationCounter> countByUserId(@Param("userId") UUID userId);
+
+    @Query("select distinct n.userId from Notification n")
+    List<UUID> findDistinctUserIds();
 }
@@ -0,0 +1,68 @@
+package app.repository;
+
+import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
+import app.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest unpublished events, skipping rows another replica's relay already holds.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Records one event per listed notification in a single INSERT ... SELECT, using the rows' current state.
+     */
+    @Modifying
+    @Query("insert into OutboxEvent (notificationId, userId, transition, status, type, createdOn) " +
+            "select n.id, n.userId, :transition, n.status, n.type, :createdOn from Notification n where n.id in :ids")
+    int insertForNotifications(@Param("ids") Collection<UUID> ids,
+                               @Param("transition") NotificationTransition transition,
+                               @Param("createdOn") LocalDateTime createdOn);
+
+    /**
+     * Records the events of a {@link NotificationRepository#updateStatus} about to run with the same arguments: one
+     * per listed non-deleted notification still in {@code from}, carrying the new status and type. Has to run
+     * before the update, which moves the rows out of {@code from}.
+     */
+    @Modifying
+    @Query("insert into OutboxEvent (notificationId, userId, transition, status, type, createdOn) " +
+            "select n.id, n.userId, :transition, :status, :type, :createdOn from Notification n " +
+            "where n.id in :ids and n.status = :from and n.deleted = false")
+    int insertForStatusChange(@Param("ids") Collection<UUID> ids,
+                              @Param("from") NotificationStatus from,
+                              @Param("status") NotificationStatus status,
+                              @Param("type") NotificationType type,
+                              @Param("transition") NotificationTransition transition,
+                              @Param("createdOn") LocalDateTime createdOn);
+
+    /**
+     * Records one event per non-deleted notification of the user in a single INSERT ... SELECT.
+     */
+    @Modifying
+    @Query("insert into OutboxEvent (notificationId, userId, transition, status, type, createdOn) " +
+            "select n.id, n.userId, :transition, n.status, n.type, :createdOn from Notification n where n.userId = :userId and n.deleted = false")
+    int insertForUser(@Param("userId") UUID userId,
+                      @Param("transition") NotificationTransition transition,
+                      @Param("createdOn") LocalDateTime createdOn);
+}
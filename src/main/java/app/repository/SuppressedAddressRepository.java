@@ -0,0 +1,26 @@
+package app.repository;
+
+import app.model.SuppressedAddress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface SuppressedAddressRepository extends JpaRepository<SuppressedAddress, UUID> {
+
+    boolean existsByAddress(String address);
+
+    @Query("select s.address from SuppressedAddress s")
+    Stream<String> streamAllAddresses();
+
+    @Transactional
+    @Modifying
+    @Query("delete from SuppressedAddress s where s.address = :address")
+    int deleteByAddress(@Param("address") String address);
+}
@@ -0,0 +1,172 @@
+package app.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: scheduling is O(1) and a single worker thread expires one bucket per tick.
+ * <p>
+ * At most {@code maxFiresPerTick} items expire per tick; anything beyond that budget rolls over to the next
+ * tick, which spreads a burst of identical deadlines into a steady stream instead of one spike.
+ */
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<T> overflow = new ArrayDeque<>();
+    private final int maxFiresPerTick;
+    private final Consumer<T> onExpire;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread worker;
+    private final long startNanos;
+
+    private volatile boolean running;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(Duration tickDuration, int wheelSize, int maxFiresPerTick, Consumer<T> onExpire, String threadName) {
+
+        int normalizedSize = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+
+        this.tickNanos = Math.max(1, tickDuration.toNanos());
+        this.mask = normalizedSize - 1;
+        this.buckets = new ArrayDeque[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.maxFiresPerTick = Math.max(1, maxFiresPerTick);
+        this.onExpire = onExpire;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+
+        running = true;
+        worker.start();
+    }
+
+    public void stop() {
+
+        running = false;
+        worker.interrupt();
+    }
+
+    public void schedule(T item, Instant deadline) {
+
+        schedule(item, Duration.between(Instant.now(), deadline).toNanos());
+    }
+
+    public void schedule(T item, long delayNanos) {
+
+        pending.add(new Entry<>(item, System.nanoTime() - startNanos + Math.max(0, delayNanos)));
+        size.incrementAndGet();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void run() {
+
+        while (running) {
+
+            if (!awaitNextTick()) {
+                return;
+            }
+
+            transferPending();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private boolean awaitNextTick() {
+
+        long deadline = tickNanos * (tick + 1);
+
+        while (running) {
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+
+        return false;
+    }
+
+    private void transferPending() {
+
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+
+            long dueTick = Math.max(entry.deadlineNanos / tickNanos, tick);
+            entry.remainingRounds = (dueTick - tick) / buckets.length;
+            buckets[(int) (dueTick & mask)].add(entry);
+        }
+    }
+
+    private void expire(ArrayDeque<Entry<T>> bucket) {
+
+        int budget = maxFiresPerTick;
+
+        while (budget > 0 && !overflow.isEmpty()) {
+            fire(overflow.poll());
+            budget--;
+        }
+
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+
+            Entry<T> entry = iterator.next();
+            if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+                continue;
+            }
+
+            iterator.remove();
+            if (budget > 0) {
+                fire(entry.item);
+                budget--;
+            } else {
+                overflow.add(entry.item);
+            }
+        }
+    }
+
+    private void fire(T item) {
+
+        size.decrementAndGet();
+        try {
+            onExpire.accept(item);
+        } catch (Exception e) {
+            log.error("Timing wheel callback failed for [{}]: {}", item, e.getMessage());
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Entry(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
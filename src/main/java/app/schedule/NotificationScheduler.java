@@ -0,0 +1,122 @@
+package app.schedule;
+
+import app.config.SchedulerProperties;
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.repository.NotificationRepository;
+import app.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Releases {@link NotificationStatus#SCHEDULED} notifications at their {@code sendAt}.
+ * <p>
+ * Rows due within the preload window are read with one indexed query and parked in a
+ * {@link HashedTimingWheel}; the query runs at startup as well, so rows that fell due while the service
+ * was down are released right away.
+ */
+@Slf4j
+@Component
+public class NotificationScheduler {
+
+    private final NotificationRepository notificationRepository;
+    private final ObjectProvider<NotificationService> notificationService;
+    private final TaskScheduler taskScheduler;
+    private final SchedulerProperties properties;
+    private final HashedTimingWheel<UUID> wheel;
+    private final ExecutorService releaseExecutor;
+    private final Set<UUID> parked = ConcurrentHashMap.newKeySet();
+
+    private volatile LocalDateTime horizon = LocalDateTime.MIN;
+
+    @Autowired
+    public NotificationScheduler(NotificationRepository notificationRepository,
+                                 ObjectProvider<NotificationService> notificationService,
+                                 TaskScheduler taskScheduler,
+                                 SchedulerProperties properties) {
+
+        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.releaseExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "scheduler-release");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.wheel = new HashedTimingWheel<>(
+                properties.getTick(),
+                properties.getWheelSize(),
+                properties.getMaxFiresPerTick(),
+                id -> releaseExecutor.execute(() -> release(id)),
+                "scheduler-wheel");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        wheel.start();
+        taskScheduler.scheduleWithFixedDelay(this::preload, properties.getPreloadInterval());
+    }
+
+    /**
+     * Parks a freshly stored notification right away if it falls inside the window already loaded.
+     */
+    public void schedule(Notification notification) {
+
+        if (!notification.getSendAt().isAfter(horizon)) {
+            park(notification);
+        }
+    }
+
+    void preload() {
+
+        LocalDateTime until = LocalDateTime.now().plus(properties.getPreloadWindow());
+        // widen the horizon first, so rows stored while the query runs are parked by schedule()
+        horizon = until;
+
+        List<Notification> due = notificationRepository.findAllByStatusAndSendAtBefore(NotificationStatus.SCHEDULED, until);
+        due.forEach(this::park);
+
+        log.info("---Preloaded %d scheduled notifications due before [%s].".formatted(due.size(), until));
+    }
+
+    private void park(Notification notification) {
+
+        if (parked.add(notification.getId())) {
+            wheel.schedule(notification.getId(), notification.getSendAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    private void release(UUID notificationId) {
+
+        parked.remove(notificationId);
+        try {
+            notificationService.getObject().dispatchScheduled(notificationId);
+        } catch (Exception e) {
+            log.error("Failed to release scheduled notification [{}]: {}", notificationId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        wheel.stop();
+        releaseExecutor.shutdownNow();
+    }
+}
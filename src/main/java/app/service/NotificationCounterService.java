@@ -0,0 +1,106 @@
+package app.service;
+
+import app.model.NotificationCounter;
+import app.repository.NotificationCounterRepository;
+import app.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+/**
+ * Keeps {@link NotificationCounter} rows in step with notification writes, so per-user stats are a primary-key
+ * read. Adjustments join the caller's transaction and run after its notification write. A user's first
+ * adjustment creates the row with an upsert counted from the notifications as that transaction sees them, which
+ * already includes its own write; if a concurrent first write created the row meanwhile, the upsert applies the
+ * adjustment to it instead. No second connection is taken, so a full pool cannot deadlock on counter creation.
+ * <p>
+ * {@link #reconcileAll} recounts every user from the notifications table and repairs any drift.
+ */
+@Slf4j
+@Service
+public class NotificationCounterService {
+
+    private final NotificationCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transaction;
+
+    @Autowired
+    public NotificationCounterService(NotificationCounterRepository counterRepository,
+                                      NotificationRepository notificationRepository,
+                                      PlatformTransactionManager transactionManager) {
+
+        this.counterRepository = counterRepository;
+        this.notificationRepository = notificationRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void add(UUID userId, long total, long failed, long deleted) {
+
+        if (total == 0 && failed == 0 && deleted == 0) {
+            return;
+        }
+
+        if (counterRepository.increment(userId, total, failed, deleted) == 0) {
+            NotificationCounter initial = recount(userId);
+            counterRepository.upsert(userId, initial.getTotal(), initial.getFailed(), initial.getDeleted(), total, failed, deleted);
+        }
+    }
+
+    public void moveAllToDeleted(UUID userId) {
+
+        if (counterRepository.moveAllToDeleted(userId) == 0) {
+            NotificationCounter initial = recount(userId);
+            counterRepository.upsertAllDeleted(userId, initial.getTotal(), initial.getFailed(), initial.getDeleted());
+        }
+    }
+
+    public NotificationCounter get(UUID userId) {
+
+        return counterRepository.findById(userId).orElseGet(() -> transaction.execute(status -> {
+            createIfAbsent(userId);
+            return counterRepository.findById(userId).orElseThrow();
+        }));
+    }
+
+    /**
+     * Recounts the user under a row lock, so writes that commit meanwhile are applied on top of the new counts.
+     */
+    public void reconcile(UUID userId) {
+
+        transaction.executeWithoutResult(status -> counterRepository.findForUpdate(userId).ifPresentOrElse(counter -> {
+            NotificationCounter recounted = recount(userId);
+            counter.setTotal(recounted.getTotal());
+            counter.setFailed(recounted.getFailed());
+            counter.setDeleted(recounted.getDeleted());
+        }, () -> createIfAbsent(userId)));
+    }
+
+    @Scheduled(cron = "${notification.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+
+        int users = 0;
+        for (UUID userId : notificationRepository.findDistinctUserIds()) {
+            reconcile(userId);
+            users++;
+        }
+
+        log.info("---Reconciled notification counters for %d users.".formatted(users));
+    }
+
+    private void createIfAbsent(UUID userId) {
+
+        NotificationCounter counter = recount(userId);
+        counterRepository.upsert(userId, counter.getTotal(), counter.getFailed(), counter.getDeleted(), 0, 0, 0);
+    }
+
+    private NotificationCounter recount(UUID userId) {
+
+        return notificationRepository.countByUserId(userId)
+                .orElseGet(() -> NotificationCounter.builder().userId(userId).build());
+    }
+}
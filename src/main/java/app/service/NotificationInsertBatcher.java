@@ -0,0 +1,220 @@
+package app.service;
+
+import app.config.InsertBatchProperties;
+import app.model.Notification;
+import app.model.NotificationTransition;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for new notifications. Rows submitted by concurrent requests are collected for up to
+ * {@code max-delay} or {@code max-batch-size} rows and written by a single writer thread with one JDBC batch
+ * and one commit, so the database pays one fsync per batch instead of one per request. Each caller's future
+ * completes once the batch holding its row has committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.insert-batch", name = "enabled", havingValue = "true")
+public class NotificationInsertBatcher {
+
+    private final NotificationStore notificationStore;
+    private final TransactionTemplate transactionTemplate;
+    private final InsertBatchProperties properties;
+    private final BlockingQueue<PendingInsert> queue;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public NotificationInsertBatcher(NotificationStore notificationStore,
+                                     TransactionTemplate transactionTemplate,
+                                     InsertBatchProperties properties) {
+
+        this.notificationStore = notificationStore;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.writer = new Thread(this::writeLoop, "notification-insert-batcher");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues the notification for the next batch. When the queue is full or the batcher is shutting down,
+     * the row is inserted on the calling thread instead.
+     */
+    public CompletableFuture<Notification> submit(Notification notification, NotificationTransition transition) {
+
+        PendingInsert pending = new PendingInsert(notification, transition, new CompletableFuture<>());
+
+        if (!enqueue(pending)) {
+            return CompletableFuture.completedFuture(notificationStore.save(notification, transition));
+        }
+
+        return pending.result();
+    }
+
+    /**
+     * Blocking form of {@link #submit}, returning the stored notification once its batch has committed. A row
+     * still queued after {@code insert-timeout} is withdrawn and the insert fails; one the writer has already
+     * taken may still commit, so the caller waits for its batch rather than retrying into a duplicate.
+     */
+    public Notification insert(Notification notification, NotificationTransition transition) {
+
+        PendingInsert pending = new PendingInsert(notification, transition, new CompletableFuture<>());
+
+        if (!enqueue(pending)) {
+            return notificationStore.save(notification, transition);
+        }
+
+        try {
+            return pending.result().get(properties.getInsertTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the notification insert.", e);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new IllegalStateException("Notification insert was not started within %s.".formatted(properties.getInsertTimeout()), e);
+            }
+        }
+
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+
+        running = false;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean enqueue(PendingInsert pending) {
+        return running && queue.offer(pending);
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+
+        return new IllegalStateException("Notification insert failed.", cause);
+    }
+
+    private void writeLoop() {
+
+        List<PendingInsert> batch = new ArrayList<>(properties.getMaxBatchSize());
+        long maxDelayNanos = properties.getMaxDelay().toNanos();
+
+        while (running || !queue.isEmpty()) {
+
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == properties.getMaxBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // close() never interrupts; finish whatever is queued and re-check running
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+
+                Map<NotificationTransition, List<PendingInsert>> byTransition = new EnumMap<>(NotificationTransition.class);
+                for (PendingInsert pending : batch) {
+                    byTransition.computeIfAbsent(pending.transition(), transition -> new ArrayList<>()).add(pending);
+                }
+
+                byTransition.forEach((transition, group) -> notificationStore.saveAll(group
+                        .stream()
+                        .map(PendingInsert::notification)
+                        .toList(), transition));
+            });
+        } catch (RuntimeException e) {
+            writeOneByOne(batch, e);
+            return;
+        }
+
+        batch.forEach(pending -> pending.result().complete(pending.notification()));
+    }
+
+    /**
+     * A failed batch is retried row by row, so a single bad row fails only its own caller.
+     */
+    private void writeOneByOne(List<PendingInsert> batch, RuntimeException batchFailure) {
+
+        if (batch.size() == 1) {
+            batch.get(0).result().completeExceptionally(batchFailure);
+            return;
+        }
+
+        log.warn("Insert batch of {} notifications failed, retrying them one by one.", batch.size(), batchFailure);
+
+        for (PendingInsert pending : batch) {
+
+            Notification notification = pending.notification();
+            notification.setId(null);
+            notification.setPersistedStatus(null);
+
+            try {
+                pending.result().complete(notificationStore.save(notification, pending.transition()));
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record PendingInsert(Notification notification, NotificationTransition transition, CompletableFuture<Notification> result) {
+    }
+}
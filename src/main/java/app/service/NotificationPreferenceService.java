@@ -2,27 +2,36 @@ package app.service;
 
 import app.model.NotificationPreference;
 import app.model.NotificationType;
+import app.preference.PreferenceView;
 import app.repository.NotificationPreferenceRepository;
 import app.web.dto.PreferenceRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class NotificationPreferenceService {
 
     private final NotificationPreferenceRepository preferenceRepository;
+    private final ObjectProvider<PreferenceView> preferenceView;
 
     @Autowired
-    public NotificationPreferenceService(NotificationPreferenceRepository preferenceRepository) {
+    public NotificationPreferenceService(NotificationPreferenceRepository preferenceRepository,
+                                         ObjectProvider<PreferenceView> preferenceView) {
+
         this.preferenceRepository = preferenceRepository;
+        this.preferenceView = preferenceView;
     }
 
+    @Transactional
     public NotificationPreference upsert(PreferenceRequest request) {
 
         Optional<NotificationPreference> preferenceOpt = preferenceRepository.findByUserId(request.getUserId());
@@ -30,18 +39,21 @@ public class NotificationPreferenceService {
         if (preferenceOpt.isPresent()) {
 
             NotificationPreference preference = preferenceOpt.get();
+            if (request.getType() != null) {
+                preference.setType(request.getType());
+            }
             preference.setEnabled(request.isNotificationEnabled());
             preference.setContactInfo(request.getContactInfo());
             preference.setUpdatedOn(LocalDateTime.now());
 
             log.info("---Upsert preference for [%s].".formatted(preference.getContactInfo()));
 
-            return preferenceRepository.save(preference);
+            return published(preferenceRepository.save(preference));
         }
 
         NotificationPreference preference = NotificationPreference.builder()
                 .userId(request.getUserId())
-                .type(NotificationType.EMAIL)
+                .type(request.getType() != null ? request.getType() : NotificationType.EMAIL)
                 .enabled(request.isNotificationEnabled())
                 .contactInfo(request.getContactInfo())
                 .createdOn(LocalDateTime.now())
@@ -50,12 +62,55 @@ public class NotificationPreferenceService {
 
         log.info("---Upsert preference for [%s].".formatted(preference.getContactInfo()));
 
-        return preferenceRepository.save(preference);
+        return published(preferenceRepository.save(preference));
     }
 
+    /**
+     * Served from the local {@link PreferenceView} when it is enabled and holds the user, from the table otherwise.
+     */
     public NotificationPreference getByUserId(UUID userId) {
 
-        return preferenceRepository.findByUserId(userId)
+        PreferenceView view = preferenceView.getIfAvailable();
+        Optional<NotificationPreference> cached = view != null ? view.find(userId) : Optional.empty();
+
+        return cached.or(() -> preferenceRepository.findByUserId(userId))
                 .orElseThrow(() -> new RuntimeException("Preference for this user does not exist."));
     }
+
+    /**
+     * Like {@link #getByUserId}, with the users the view does not hold read in one query.
+     */
+    public Map<UUID, NotificationPreference> getByUserIds(Collection<UUID> userIds) {
+
+        PreferenceView view = preferenceView.getIfAvailable();
+
+        if (view == null) {
+            return preferenceRepository.findAllByUserIdIn(userIds)
+                    .stream()
+                    .collect(Collectors.toMap(NotificationPreference::getUserId, Function.identity()));
+        }
+
+        Map<UUID, NotificationPreference> preferences = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+
+        for (UUID userId : userIds) {
+            view.find(userId).ifPresentOrElse(preference -> preferences.put(userId, preference), () -> missing.add(userId));
+        }
+
+        if (!missing.isEmpty()) {
+            preferenceRepository.findAllByUserIdIn(missing).forEach(preference -> preferences.put(preference.getUserId(), preference));
+        }
+
+        return preferences;
+    }
+
+    private NotificationPreference published(NotificationPreference preference) {
+
+        PreferenceView view = preferenceView.getIfAvailable();
+        if (view != null) {
+            view.publishAfterCommit(List.of(preference));
+        }
+
+        return preference;
+    }
 }
@@ -1,38 +1,70 @@
 package app.service;
 
+import app.channel.AttachmentStore;
+import app.channel.ChannelDispatcher;
+import app.channel.ChannelMessage;
 import app.exception.NotificationPreferenceDisabledException;
+import app.journal.JournalWriteBehind;
 import app.model.Notification;
+import app.model.NotificationCounter;
 import app.model.NotificationPreference;
+import app.model.NotificationPriority;
 import app.model.NotificationStatus;
+import app.model.NotificationTransition;
 import app.model.NotificationType;
 import app.repository.NotificationRepository;
+import app.schedule.NotificationScheduler;
+import app.suppression.SuppressionList;
 import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.MailSender;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationStore notificationStore;
     private final NotificationPreferenceService preferenceService;
-    private final MailSender mailSender;
+    private final ChannelDispatcher channelDispatcher;
+    private final NotificationScheduler notificationScheduler;
+    private final AttachmentStore attachmentStore;
+    private final SuppressionList suppressionList;
+    private final ObjectProvider<JournalWriteBehind> journal;
+    private final ObjectProvider<NotificationInsertBatcher> insertBatcher;
 
     @Autowired
     public NotificationService(NotificationRepository notificationRepository,
+                               NotificationStore notificationStore,
                                NotificationPreferenceService preferenceService,
-                               MailSender mailSender) {
+                               ChannelDispatcher channelDispatcher,
+                               NotificationScheduler notificationScheduler,
+                               AttachmentStore attachmentStore,
+                               SuppressionList suppressionList,
+                               ObjectProvider<JournalWriteBehind> journal,
+                               ObjectProvider<NotificationInsertBatcher> insertBatcher) {
 
         this.notificationRepository = notificationRepository;
+        this.notificationStore = notificationStore;
         this.preferenceService = preferenceService;
-        this.mailSender = mailSender;
+        this.channelDispatcher = channelDispatcher;
+        this.notificationScheduler = notificationScheduler;
+        this.attachmentStore = attachmentStore;
+        this.suppressionList = suppressionList;
+        this.journal = journal;
+        this.insertBatcher = insertBatcher;
     }
 
     public Notification send(NotificationRequest request) {
@@ -43,48 +75,156 @@ public class NotificationService {
             throw new IllegalStateException("User with id=[%s] turned off their notifications.".formatted(request.getUserId()));
         }
 
+        attachmentStore.validate(request.getAttachments());
+
         Notification notification = Notification.builder()
                 .subject(request.getSubject())
                 .body(request.getBody())
+                .htmlBody(request.getHtmlBody())
+                .attachments(request.getAttachments())
                 .createdOn(LocalDateTime.now())
-                .type(NotificationType.EMAIL)
+                .type(preference.getType())
+                .priority(priorityOf(request))
                 .userId(request.getUserId())
                 .deleted(false)
                 .build();
 
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(preference.getContactInfo());
-        mailMessage.setSubject(request.getSubject());
-        mailMessage.setText(request.getBody());
+        if (isDeferred(request)) {
+
+            notification.setStatus(NotificationStatus.SCHEDULED);
+            notification.setSendAt(request.getSendAt());
+
+            Notification scheduled = saveNew(notification);
+            notificationScheduler.schedule(scheduled);
+
+            log.info("---Schedule notification for [%s] at [%s].".formatted(preference.getContactInfo(), request.getSendAt()));
+
+            return scheduled;
+        }
+
+        if (suppressionList.isSuppressed(preference.getContactInfo())) {
+
+            notification.setStatus(NotificationStatus.SUPPRESSED);
+            log.info("---Skip notification for suppressed [%s].".formatted(preference.getContactInfo()));
+
+            return saveFinal(notification);
+        }
 
-        sendMail(mailMessage, notification);
+        deliver(preference, notification);
 
         log.info("---Send notification for [%s].".formatted(preference.getContactInfo()));
 
-        return notificationRepository.save(notification);
+        return saveFinal(notification);
     }
 
-    public List<Notification> getHistory(UUID userId) {
+    /**
+     * Persists a batch of queued requests in one write and hands them to the channel bulkheads without
+     * waiting for delivery. Requests with a future {@code sendAt} go to the scheduler instead, and
+     * requests for users without an enabled preference are dropped.
+     */
+    public List<Notification> accept(List<NotificationRequest> requests) {
 
-        return notificationRepository
-                .findByUserId(userId)
+        Map<UUID, NotificationPreference> preferences = preferenceService.getByUserIds(requests
                 .stream()
-                .filter(n -> !n.isDeleted())
-                .toList();
+                .map(NotificationRequest::getUserId)
+                .distinct()
+                .toList());
+
+        List<Notification> accepted = new ArrayList<>(requests.size());
+
+        for (NotificationRequest request : requests) {
+
+            NotificationPreference preference = preferences.get(request.getUserId());
+            if (preference == null || !preference.isEnabled()) {
+                log.warn("Dropped queued notification for user with id=[{}]: no enabled preference.", request.getUserId());
+                continue;
+            }
+
+            accepted.add(Notification.builder()
+                    .subject(request.getSubject())
+                    .body(request.getBody())
+                    .htmlBody(request.getHtmlBody())
+                    .attachments(request.getAttachments())
+                    .createdOn(LocalDateTime.now())
+                    .status(isDeferred(request) ? NotificationStatus.SCHEDULED : NotificationStatus.PENDING)
+                    .sendAt(isDeferred(request) ? request.getSendAt() : null)
+                    .type(preference.getType())
+                    .priority(priorityOf(request))
+                    .userId(request.getUserId())
+                    .deleted(false)
+                    .build());
+        }
+
+        List<Notification> saved = notificationStore.saveAll(accepted, NotificationTransition.CREATED);
+
+        Map<NotificationType, List<Notification>> immediate = new EnumMap<>(NotificationType.class);
+
+        for (Notification notification : saved) {
+
+            if (notification.getStatus() == NotificationStatus.SCHEDULED) {
+                notificationScheduler.schedule(notification);
+            } else if (!suppress(preferences.get(notification.getUserId()), notification)) {
+                immediate.computeIfAbsent(notification.getType(), type -> new ArrayList<>()).add(notification);
+            }
+        }
+
+        immediate.forEach((type, notifications) -> deliverAllAsync(type, preferences, notifications));
+
+        log.info("---Accepted %d of %d queued notifications.".formatted(saved.size(), requests.size()));
+
+        return saved;
     }
 
-    public void deleteAll(UUID userId) {
+    /**
+     * Called by the scheduler once {@code sendAt} is reached. Only the replica that wins the
+     * SCHEDULED to PENDING claim delivers the notification.
+     */
+    public void dispatchScheduled(UUID notificationId) {
 
-        List<Notification> notifications = getHistory(userId);
+        if (notificationRepository.claimScheduled(notificationId) == 0) {
+            return;
+        }
 
-        for (Notification notification : notifications) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification with id=[%s] does not exist.".formatted(notificationId)));
+        notification.setStatus(NotificationStatus.PENDING);
 
-            notification.setDeleted(true);
-            notificationRepository.save(notification);
+        NotificationPreference preference = preferenceService.getByUserId(notification.getUserId());
+        if (!preference.isEnabled()) {
+            notification.setStatus(NotificationStatus.FAILED);
+            notificationStore.save(notification, NotificationTransition.FAILED);
+            return;
         }
 
+        notification.setType(preference.getType());
+        deliverAsync(preference, notification);
+    }
+
+    /**
+     * All of the user's non-deleted notifications, newest first.
+     */
+    public List<NotificationResponse> getHistory(UUID userId) {
+
+        flushJournal(userId);
+
+        return notificationStore.history(userId);
+    }
+
+    public NotificationCounter getStats(UUID userId) {
+
+        flushJournal(userId);
+
+        return notificationStore.counters(userId);
+    }
+
+    public void deleteAll(UUID userId) {
+
+        flushJournal(userId);
+
+        int deleted = notificationStore.markAllDeleted(userId);
+
         NotificationPreference preference = preferenceService.getByUserId(userId);
-        log.info("---Delete all notifications for [%s].".formatted(preference.getContactInfo()));
+        log.info("---Delete all %d notifications for [%s].".formatted(deleted, preference.getContactInfo()));
     }
 
     public void retryFailed(UUID userId) {
@@ -94,35 +234,149 @@ public class NotificationService {
             throw new NotificationPreferenceDisabledException("User does turned off their notifications.");
         }
 
-        List<Notification> failedNotifications = getHistory(userId)
-                .stream()
-                .filter(n -> n.getStatus() == NotificationStatus.FAILED)
-                .toList();
+        flushJournal(userId);
 
-        for (Notification failedNotification : failedNotifications) {
+        List<Notification> failedNotifications = notificationRepository.findByUserIdAndStatusAndDeletedFalse(userId, NotificationStatus.FAILED);
+
+        if (suppressionList.isSuppressed(preference.getContactInfo())) {
 
-            SimpleMailMessage newEmail = new SimpleMailMessage();
-            newEmail.setTo(preference.getContactInfo());
-            newEmail.setSubject(failedNotification.getSubject());
-            newEmail.setText(failedNotification.getBody());
+            List<UUID> ids = failedNotifications.stream().map(Notification::getId).toList();
+            notificationStore.updateStatus(userId, ids, NotificationStatus.FAILED, NotificationStatus.SUPPRESSED, preference.getType(), NotificationTransition.SUPPRESSED);
 
-            sendMail(newEmail, failedNotification);
+            log.info("---Skip retry of %d notifications for suppressed [%s].".formatted(ids.size(), preference.getContactInfo()));
+            return;
+        }
+
+        for (Notification failedNotification : failedNotifications) {
 
-            notificationRepository.save(failedNotification);
+            failedNotification.setType(preference.getType());
+            deliver(preference, failedNotification);
         }
 
+        failedNotifications
+                .stream()
+                .collect(Collectors.groupingBy(Notification::getStatus, Collectors.mapping(Notification::getId, Collectors.toList())))
+                .forEach((status, ids) -> notificationStore.updateStatus(userId, ids, NotificationStatus.FAILED, status, preference.getType(), NotificationTransition.RETRIED));
+
         log.info("---Retry failed notifications for [%s].".formatted(preference.getContactInfo()));
     }
 
-    private void sendMail(SimpleMailMessage mailMessage, Notification notification) {
+    /**
+     * Stores a notification that is already in its final status. With the journal enabled it is acknowledged
+     * once durable in the local journal and inserted later in a batch, with the id it was journaled under.
+     */
+    private Notification saveFinal(Notification notification) {
 
-        try {
-            mailSender.send(mailMessage);
-            notification.setStatus(NotificationStatus.SUCCEEDED);
-        } catch (Exception e) {
-            log.error("Failed email due to: {}", e.getMessage());
-            notification.setStatus(NotificationStatus.FAILED);
+        JournalWriteBehind writeBehind = journal.getIfAvailable();
+
+        if (writeBehind != null && writeBehind.append(notification, NotificationTransition.CREATED)) {
+            return notification;
+        }
+
+        return saveNew(notification);
+    }
+
+    /**
+     * Journaled notifications are not in the database until drained, so reads and bulk updates of a user's
+     * notifications first drain the user's pending entries.
+     */
+    private void flushJournal(UUID userId) {
+
+        journal.ifAvailable(writeBehind -> writeBehind.flush(userId));
+    }
+
+    /**
+     * Inserts a new notification, through the insert batcher when enabled so concurrent sends share a commit.
+     */
+    private Notification saveNew(Notification notification) {
+
+        NotificationInsertBatcher batcher = insertBatcher.getIfAvailable();
+
+        if (batcher != null) {
+            return batcher.insert(notification, NotificationTransition.CREATED);
+        }
+
+        return notificationStore.save(notification, NotificationTransition.CREATED);
+    }
+
+    private void deliver(NotificationPreference preference, Notification notification) {
+
+        ChannelMessage message = toMessage(preference, notification);
+
+        boolean delivered = channelDispatcher.dispatch(preference.getType(), message);
+
+        notification.setStatus(delivered ? NotificationStatus.SUCCEEDED : NotificationStatus.FAILED);
+    }
+
+    private void deliverAsync(NotificationPreference preference, Notification notification) {
+
+        if (suppress(preference, notification)) {
+            return;
+        }
+
+        channelDispatcher
+                .dispatchAsync(preference.getType(), toMessage(preference, notification))
+                .thenAccept(delivered -> completeDelivery(notification, delivered));
+    }
+
+    /**
+     * Hands a batch to the dispatcher in one call, so notifications with identical content, e.g. an announcement
+     * fanned out to many users, can go out as multi-recipient deliveries. Each notification still gets the
+     * outcome of its own recipient.
+     */
+    private void deliverAllAsync(NotificationType type, Map<UUID, NotificationPreference> preferences, List<Notification> notifications) {
+
+        List<ChannelMessage> messages = notifications
+                .stream()
+                .map(notification -> toMessage(preferences.get(notification.getUserId()), notification))
+                .toList();
+
+        List<CompletableFuture<Boolean>> deliveries = channelDispatcher.dispatchAllAsync(type, messages);
+
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            deliveries.get(i).thenAccept(delivered -> completeDelivery(notification, delivered));
+        }
+    }
+
+    private boolean suppress(NotificationPreference preference, Notification notification) {
+
+        if (!suppressionList.isSuppressed(preference.getContactInfo())) {
+            return false;
         }
+
+        notification.setStatus(NotificationStatus.SUPPRESSED);
+        notificationStore.save(notification, NotificationTransition.SUPPRESSED);
+
+        return true;
+    }
+
+    private void completeDelivery(Notification notification, boolean delivered) {
+
+        notification.setStatus(delivered ? NotificationStatus.SUCCEEDED : NotificationStatus.FAILED);
+        notificationStore.save(notification, delivered ? NotificationTransition.SUCCEEDED : NotificationTransition.FAILED);
+    }
+
+    private static ChannelMessage toMessage(NotificationPreference preference, Notification notification) {
+
+        return ChannelMessage.builder()
+                .recipient(preference.getContactInfo())
+                .subject(notification.getSubject())
+                .body(notification.getBody())
+                .htmlBody(notification.getHtmlBody())
+                .attachments(notification.getAttachments() != null ? notification.getAttachments() : List.of())
+                .priority(notification.getPriority() != null ? notification.getPriority() : NotificationPriority.NORMAL)
+                .build();
+    }
+
+    private static boolean isDeferred(NotificationRequest request) {
+
+        return request.getSendAt() != null && request.getSendAt().isAfter(LocalDateTime.now());
+    }
+
+    private static NotificationPriority priorityOf(NotificationRequest request) {
+
+        return request.getPriority() != null ? request.getPriority() : NotificationPriority.NORMAL;
     }
 
     public NotificationPreference getPreferenceByUserId(UUID userId) {
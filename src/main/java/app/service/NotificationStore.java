@@ -0,0 +1,216 @@
+package app.service;
+
+import app.history.RecentHistoryCache;
+import app.model.Notification;
+import app.model.NotificationCounter;
+import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
+import app.model.OutboxEvent;
+import app.repository.NotificationRepository;
+import app.repository.OutboxEventRepository;
+import app.web.dto.NotificationResponse;
+import app.web.mapper.DtoMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Single write path for {@link Notification} rows. Every write records the matching status event in the
+ * outbox within the same transaction, so published events never diverge from the database, and is applied
+ * to the {@link RecentHistoryCache} once committed, so history reads can be served from memory.
+ */
+@Service
+public class NotificationStore {
+
+    private final NotificationRepository notificationRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final RecentHistoryCache historyCache;
+    private final NotificationCounterService counterService;
+
+    @Autowired
+    public NotificationStore(NotificationRepository notificationRepository,
+                             OutboxEventRepository outboxEventRepository,
+                             RecentHistoryCache historyCache,
+                             NotificationCounterService counterService) {
+
+        this.notificationRepository = notificationRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.historyCache = historyCache;
+        this.counterService = counterService;
+    }
+
+    /**
+     * All of the user's non-deleted notifications, newest first. The most recent come from the
+     * {@link RecentHistoryCache}; only users with more than it holds per user cost a query for the older ones.
+     */
+    public List<NotificationResponse> history(UUID userId) {
+
+        RecentHistoryCache.Recent recent = historyCache.get(userId, limit -> notificationRepository.findByUserIdAndDeletedFalseOrderByCreatedOnDesc(userId, Limit.of(limit)));
+        if (recent.complete() || recent.newestFirst().isEmpty()) {
+            return recent.newestFirst();
+        }
+
+        LocalDateTime oldest = recent.newestFirst().get(recent.newestFirst().size() - 1).getCreatedOn();
+        List<NotificationResponse> history = new ArrayList<>(recent.newestFirst());
+
+        for (Notification notification : notificationRepository.findByUserIdAndDeletedFalseAndCreatedOnLessThanEqualOrderByCreatedOnDesc(userId, oldest)) {
+            if (!recent.ids().contains(notification.getId())) {
+                history.add(DtoMapper.from(notification));
+            }
+        }
+
+        return history;
+    }
+
+    public NotificationCounter counters(UUID userId) {
+
+        return counterService.get(userId);
+    }
+
+    @Transactional
+    public Notification save(Notification notification, NotificationTransition transition) {
+
+        NotificationStatus previous = notification.getPersistedStatus();
+        Notification saved = notificationRepository.save(notification);
+
+        outboxEventRepository.save(toEvent(saved, transition));
+        count(saved.getUserId(), previous, saved.getStatus(), 1);
+        notification.setPersistedStatus(saved.getStatus());
+
+        afterCommit(() -> {
+            if (previous == null) {
+                historyCache.created(List.of(saved));
+            } else {
+                historyCache.updated(List.of(saved));
+            }
+        });
+
+        return saved;
+    }
+
+    /**
+     * Writes the rows as one JDBC batch and their events with one statement, in a single transaction.
+     */
+    @Transactional
+    public List<Notification> saveAll(List<Notification> notifications, NotificationTransition transition) {
+
+        List<NotificationStatus> previous = notifications.stream().map(Notification::getPersistedStatus).toList();
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+
+        // Outbox ids are IDENTITY, which Hibernate cannot batch, so the events go in as one INSERT ... SELECT
+        // over the rows flushed in the notification batch.
+        notificationRepository.flush();
+        outboxEventRepository.insertForNotifications(saved.stream().map(Notification::getId).toList(), transition, LocalDateTime.now());
+
+        Map<UUID, long[]> deltas = new HashMap<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Notification notification = saved.get(i);
+            long[] delta = deltas.computeIfAbsent(notification.getUserId(), userId -> new long[2]);
+            delta[0] += previous.get(i) == null ? 1 : 0;
+            delta[1] += failedDelta(previous.get(i), notification.getStatus(), 1);
+        }
+        deltas.forEach((userId, delta) -> counterService.add(userId, delta[0], delta[1], 0));
+
+        List<Notification> created = new ArrayList<>();
+        List<Notification> updated = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            (previous.get(i) == null ? created : updated).add(saved.get(i));
+        }
+        afterCommit(() -> {
+            historyCache.created(created);
+            historyCache.updated(updated);
+        });
+
+        return saved;
+    }
+
+    /**
+     * Soft-deletes all of the user's notifications with one UPDATE and records their DELETED events with one
+     * INSERT ... SELECT, regardless of how many rows the user has.
+     */
+    @Transactional
+    public int markAllDeleted(UUID userId) {
+
+        outboxEventRepository.insertForUser(userId, NotificationTransition.DELETED, LocalDateTime.now());
+
+        afterCommit(() -> historyCache.deletedAll(userId));
+
+        int deleted = notificationRepository.markDeletedByUserId(userId);
+        counterService.moveAllToDeleted(userId);
+
+        return deleted;
+    }
+
+    /**
+     * Bulk counterpart of {@link #save} for rows of one user moving from status {@code from} to the same
+     * status and type. Rows no longer in {@code from}, or deleted, are left alone and get no event.
+     */
+    @Transactional
+    public int updateStatus(UUID userId, Collection<UUID> notificationIds, NotificationStatus from, NotificationStatus status, NotificationType type, NotificationTransition transition) {
+
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+
+        // events first: the update moves the rows out of the predicate both statements share
+        outboxEventRepository.insertForStatusChange(notificationIds, from, status, type, transition, LocalDateTime.now());
+        int updated = notificationRepository.updateStatus(notificationIds, from, status, type);
+        count(userId, from, status, updated);
+
+        afterCommit(() -> historyCache.statusChanged(userId, notificationIds, status, type));
+
+        return updated;
+    }
+
+    private void count(UUID userId, NotificationStatus previous, NotificationStatus current, int rows) {
+
+        counterService.add(userId, previous == null ? rows : 0, failedDelta(previous, current, rows), 0);
+    }
+
+    private static long failedDelta(NotificationStatus previous, NotificationStatus current, int rows) {
+
+        int was = previous == NotificationStatus.FAILED ? 1 : 0;
+        int is = current == NotificationStatus.FAILED ? 1 : 0;
+
+        return (long) (is - was) * rows;
+    }
+
+    private static void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private OutboxEvent toEvent(Notification notification, NotificationTransition transition) {
+
+        return OutboxEvent.builder()
+                .notificationId(notification.getId())
+                .userId(notification.getUserId())
+                .transition(transition)
+                .status(notification.getStatus())
+                .type(notification.getType())
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
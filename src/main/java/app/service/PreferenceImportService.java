@@ -0,0 +1,277 @@
+package app.service;
+
+import app.exception.InvalidImportFileException;
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+import app.preference.PreferenceView;
+import app.repository.NotificationPreferenceRepository;
+import app.web.dto.PreferenceImportResponse;
+import app.web.dto.PreferenceRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk preference upsert for migrations. Input is read line by line and written in chunks of
+ * {@code notification.preferences.import-batch-size}, each in its own transaction: one lookup of the
+ * chunk's existing rows, then batched inserts and updates. Memory stays bounded by the chunk size.
+ */
+@Slf4j
+@Service
+public class PreferenceImportService {
+
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private static final List<String> CSV_COLUMNS = List.of("userId", "notificationEnabled", "contactInfo", "type");
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final ObjectProvider<PreferenceView> preferenceView;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+
+    @Autowired
+    public PreferenceImportService(NotificationPreferenceRepository preferenceRepository,
+                                   ObjectProvider<PreferenceView> preferenceView,
+                                   TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${notification.preferences.import-batch-size:1000}") int batchSize) {
+
+        this.preferenceRepository = preferenceRepository;
+        this.preferenceView = preferenceView;
+        this.transactionTemplate = transactionTemplate;
+        this.requestReader = objectMapper.readerFor(PreferenceRequest.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * One JSON {@link PreferenceRequest} per line.
+     */
+    public PreferenceImportResponse importNdjson(InputStream input) throws IOException {
+
+        return importLines(input, null);
+    }
+
+    /**
+     * A header line naming the columns ({@code userId,notificationEnabled,contactInfo,type}, in any order),
+     * then one preference per line.
+     */
+    public PreferenceImportResponse importCsv(InputStream input) throws IOException {
+
+        return importLines(input, new ArrayList<>());
+    }
+
+    private PreferenceImportResponse importLines(InputStream input, List<String> csvHeader) throws IOException {
+
+        ImportSummary summary = new ImportSummary();
+        List<PreferenceRequest> chunk = new ArrayList<>(batchSize);
+        List<Long> chunkLines = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (csvHeader != null && csvHeader.isEmpty()) {
+                csvHeader.addAll(parseCsvHeader(line));
+                continue;
+            }
+
+            try {
+                PreferenceRequest request = csvHeader != null ? parseCsv(csvHeader, line) : requestReader.readValue(line);
+                validate(request);
+                chunk.add(request);
+                chunkLines.add(lineNumber);
+            } catch (IOException | IllegalArgumentException e) {
+                summary.reject(lineNumber, e.getMessage());
+            }
+
+            if (chunk.size() == batchSize) {
+                upsertChunk(chunk, chunkLines, summary);
+            }
+        }
+
+        upsertChunk(chunk, chunkLines, summary);
+
+        log.info("---Imported preferences: %d inserted, %d updated, %d rejected.".formatted(summary.inserted, summary.updated, summary.rejected));
+
+        return summary.toResponse();
+    }
+
+    private void upsertChunk(List<PreferenceRequest> chunk, List<Long> chunkLines, ImportSummary summary) {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<NotificationPreference> written = new ArrayList<>(chunk.size());
+            int[] counts = transactionTemplate.execute(status -> upsert(chunk, written));
+            summary.inserted += counts[0];
+            summary.updated += counts[1];
+
+            PreferenceView view = preferenceView.getIfAvailable();
+            if (view != null) {
+                view.publishAfterCommit(written);
+            }
+        } catch (RuntimeException e) {
+            log.error("Preference import chunk of {} rows failed.", chunk.size(), e);
+            chunkLines.forEach(lineNumber -> summary.reject(lineNumber, "Chunk write failed: " + e.getMessage()));
+        }
+
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    /**
+     * Existing rows are loaded once per chunk and updated through dirty checking; new rows are persisted
+     * with {@code saveAll}. Both go out as JDBC batches on commit.
+     */
+    private int[] upsert(List<PreferenceRequest> chunk, List<NotificationPreference> written) {
+
+        Map<UUID, NotificationPreference> preferences = preferenceRepository.findAllByUserIdIn(chunk
+                        .stream()
+                        .map(PreferenceRequest::getUserId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(NotificationPreference::getUserId, Function.identity()));
+
+        List<NotificationPreference> created = new ArrayList<>();
+        int updated = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (PreferenceRequest request : chunk) {
+
+            NotificationPreference preference = preferences.get(request.getUserId());
+
+            if (preference == null) {
+
+                preference = NotificationPreference.builder()
+                        .userId(request.getUserId())
+                        .type(request.getType() != null ? request.getType() : NotificationType.EMAIL)
+                        .enabled(request.isNotificationEnabled())
+                        .contactInfo(request.getContactInfo())
+                        .createdOn(now)
+                        .updatedOn(now)
+                        .build();
+
+                preferences.put(request.getUserId(), preference);
+                created.add(preference);
+                continue;
+            }
+
+            if (request.getType() != null) {
+                preference.setType(request.getType());
+            }
+            preference.setEnabled(request.isNotificationEnabled());
+            preference.setContactInfo(request.getContactInfo());
+            preference.setUpdatedOn(now);
+            updated++;
+        }
+
+        preferenceRepository.saveAll(created);
+        written.addAll(preferences.values());
+
+        return new int[]{created.size(), updated};
+    }
+
+    private static void validate(PreferenceRequest request) {
+
+        if (request == null) {
+            throw new IllegalArgumentException("Line is not a preference.");
+        }
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("userId is required.");
+        }
+        if (request.getContactInfo() == null || request.getContactInfo().isBlank()) {
+            throw new IllegalArgumentException("contactInfo is required.");
+        }
+    }
+
+    private static List<String> parseCsvHeader(String line) {
+
+        List<String> header = Arrays.stream(line.split(",", -1)).map(String::trim).toList();
+
+        if (!header.contains("userId") || !header.contains("contactInfo")) {
+            throw new InvalidImportFileException("CSV header must name the columns %s.".formatted(CSV_COLUMNS));
+        }
+
+        return header;
+    }
+
+    private static PreferenceRequest parseCsv(List<String> header, String line) {
+
+        String[] values = line.split(",", -1);
+        if (values.length != header.size()) {
+            throw new IllegalArgumentException("Expected %d columns but found %d.".formatted(header.size(), values.length));
+        }
+
+        PreferenceRequest.PreferenceRequestBuilder builder = PreferenceRequest.builder();
+
+        for (int i = 0; i < values.length; i++) {
+
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+
+            switch (header.get(i)) {
+                case "userId" -> builder.userId(UUID.fromString(value));
+                case "notificationEnabled" -> builder.notificationEnabled(Boolean.parseBoolean(value));
+                case "contactInfo" -> builder.contactInfo(value);
+                case "type" -> builder.type(NotificationType.valueOf(value.toUpperCase()));
+                default -> {
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static class ImportSummary {
+
+        private long inserted;
+        private long updated;
+        private long rejected;
+        private final List<PreferenceImportResponse.Rejection> rejections = new ArrayList<>();
+
+        void reject(long line, String reason) {
+
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new PreferenceImportResponse.Rejection(line, reason));
+            }
+        }
+
+        PreferenceImportResponse toResponse() {
+
+            return PreferenceImportResponse.builder()
+                    .inserted(inserted)
+                    .updated(updated)
+                    .rejected(rejected)
+                    .rejections(rejections)
+                    .build();
+        }
+    }
+}
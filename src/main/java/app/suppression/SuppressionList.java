@@ -0,0 +1,131 @@
+package app.suppression;
+
+import app.config.SuppressionProperties;
+import app.model.SuppressedAddress;
+import app.model.SuppressionReason;
+import app.repository.SuppressedAddressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Addresses that must not be sent to. The table is the source of truth; a Bloom filter in front of it
+ * answers the common "not suppressed" case without a query, and only filter hits are confirmed against
+ * the table. Additions since the last rebuild are also kept in an exact set, so a new suppression takes
+ * effect on this replica immediately. Provider events reach every replica; an address suppressed through the
+ * API reaches the others with their next rebuild.
+ */
+@Slf4j
+@Component
+public class SuppressionList {
+
+    private final SuppressedAddressRepository repository;
+    private final SuppressionProperties properties;
+    private final Set<String> recentlyAdded = ConcurrentHashMap.newKeySet();
+
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public SuppressionList(SuppressedAddressRepository repository, SuppressionProperties properties) {
+
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    public boolean isSuppressed(String address) {
+
+        if (address == null) {
+            return false;
+        }
+
+        String normalized = normalize(address);
+        if (recentlyAdded.contains(normalized)) {
+            return true;
+        }
+
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(normalized)) {
+            return false;
+        }
+
+        return repository.existsByAddress(normalized);
+    }
+
+    public void suppress(String address, SuppressionReason reason) {
+
+        String normalized = normalize(address);
+
+        if (!repository.existsByAddress(normalized)) {
+            try {
+                repository.save(SuppressedAddress.builder()
+                        .address(normalized)
+                        .reason(reason)
+                        .createdOn(LocalDateTime.now())
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Address [{}] was suppressed concurrently.", normalized);
+            }
+        }
+
+        recentlyAdded.add(normalized);
+
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(normalized);
+        }
+
+        log.info("---Suppress [%s] after %s.".formatted(normalized, reason));
+    }
+
+    /**
+     * The address stays in the Bloom filter until the next rebuild, but filter hits are confirmed against
+     * the table, so sends resume right away.
+     */
+    public void unsuppress(String address) {
+
+        String normalized = normalize(address);
+
+        repository.deleteByAddress(normalized);
+        recentlyAdded.remove(normalized);
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${notification.suppression.rebuild-interval:5m}",
+            initialDelayString = "${notification.suppression.rebuild-interval:5m}")
+    public void rebuild() {
+
+        Set<String> replayed = new HashSet<>(recentlyAdded);
+        BloomFilter rebuilt = BloomFilter.create(properties.getExpectedAddresses(), properties.getFalsePositiveRate());
+
+        long[] count = {0};
+        try (Stream<String> addresses = repository.streamAllAddresses()) {
+            addresses.forEach(address -> {
+                rebuilt.put(address);
+                count[0]++;
+            });
+        }
+        recentlyAdded.forEach(rebuilt::put);
+
+        filter = rebuilt;
+        recentlyAdded.removeAll(replayed);
+
+        log.info("Rebuilt suppression filter with {} addresses in {} KB.", count[0], rebuilt.sizeInBytes() / 1024);
+    }
+
+    static String normalize(String address) {
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package app.trace;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+@Slf4j
+@UtilityClass
+public class SlowRequestLog {
+
+    public static void logIfSlow(StageTimings timings, Duration threshold) {
+
+        long elapsedMillis = timings.elapsedMillis();
+        if (elapsedMillis >= threshold.toMillis()) {
+            log.warn("Slow request [{}] took {} ms:{}{}", timings.name(), elapsedMillis, System.lineSeparator(), timings.breakdown());
+        }
+    }
+}
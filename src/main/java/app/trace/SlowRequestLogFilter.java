@@ -0,0 +1,44 @@
+package app.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Collects {@link StageTimings} for each API request and logs the breakdown of requests slower than
+ * {@code notification.tracing.slow-request-threshold}.
+ */
+@Component
+public class SlowRequestLogFilter extends OncePerRequestFilter {
+
+    private final Duration slowThreshold;
+
+    public SlowRequestLogFilter(@Value("${notification.tracing.slow-request-threshold:500ms}") Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        StageTimings timings = StageTimings.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StageTimings.end();
+            SlowRequestLog.logIfSlow(timings, slowThreshold);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package app.trace;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a unit of work as a named stage: it becomes a child span of the current trace and, when a request is
+ * being timed, an entry of its {@link StageTimings}.
+ */
+@Component
+public class StageTimer {
+
+    static final String OBSERVATION_NAME = "notification.stage";
+
+    private final ObservationRegistry observationRegistry;
+
+    @Autowired
+    public StageTimer(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public <T, E extends Throwable> T time(String stage, Observation.CheckedCallable<T, E> work) throws E {
+
+        StageTimings timings = StageTimings.current();
+        int depth = timings != null ? timings.enter() : 0;
+        long startedAt = System.nanoTime();
+
+        try {
+            return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                    .contextualName(stage)
+                    .lowCardinalityKeyValue("stage", stage)
+                    .observeChecked(work);
+        } finally {
+            if (timings != null) {
+                timings.exit(stage, depth, startedAt, System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package app.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the controller, service, dispatch and repository layers as stages, and treats every Kafka listener
+ * invocation like an HTTP request: it gets its own {@link StageTimings} and ends up in the slow log when it
+ * exceeds the threshold.
+ */
+@Slf4j
+@Aspect
+@Component
+public class StageTimingAspect {
+
+    private final StageTimer stageTimer;
+    private final Duration slowThreshold;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StageTimingAspect(StageTimer stageTimer,
+                             @Value("${notification.tracing.slow-request-threshold:500ms}") Duration slowThreshold) {
+
+        this.stageTimer = stageTimer;
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *) || execution(public * app.service.NotificationService.*(..))")
+    public Object timeComponent(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        String stage = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        return stageTimer.time(stage, joinPoint::proceed);
+    }
+
+    @Around("execution(public boolean app.channel.ChannelDispatcher.dispatch(..)) && args(type, ..)")
+    public Object timeDispatch(ProceedingJoinPoint joinPoint, Object type) throws Throwable {
+
+        return stageTimer.time("ChannelDispatcher.dispatch." + type.toString().toLowerCase(), joinPoint::proceed);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        String stage = repositoryName(joinPoint.getThis().getClass()) + "." + joinPoint.getSignature().getName();
+        return stageTimer.time(stage, joinPoint::proceed);
+    }
+
+    @Around("@annotation(org.springframework.kafka.annotation.KafkaListener) || @annotation(org.springframework.kafka.annotation.DltHandler)")
+    public Object timeListener(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        StageTimings timings = StageTimings.begin("kafka " + joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName());
+        try {
+            return stageTimer.time(timings.name(), joinPoint::proceed);
+        } finally {
+            StageTimings.end();
+            SlowRequestLog.logIfSlow(timings, slowThreshold);
+        }
+    }
+
+    private String repositoryName(Class<?> proxyClass) {
+
+        return repositoryNames.computeIfAbsent(proxyClass, type -> Arrays.stream(type.getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .filter(repository -> repository.getPackageName().startsWith("app."))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(type.getSimpleName()));
+    }
+}
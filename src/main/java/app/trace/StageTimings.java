@@ -0,0 +1,84 @@
+package app.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request record of how long each stage took, bound to the handling thread.
+ * Stages run on other threads (async delivery, bulkhead workers) are not included.
+ */
+public final class StageTimings {
+
+    private static final ThreadLocal<StageTimings> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final long startedAt = System.nanoTime();
+    private final List<Stage> stages = new ArrayList<>();
+    private int depth;
+
+    private StageTimings(String name) {
+        this.name = name;
+    }
+
+    public static StageTimings begin(String name) {
+
+        StageTimings timings = new StageTimings(name);
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static StageTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    int enter() {
+        return depth++;
+    }
+
+    void exit(String stage, int stageDepth, long stageStartedAt, long stageEndedAt) {
+
+        depth = stageDepth;
+        stages.add(new Stage(stage, stageDepth, stageStartedAt - startedAt, stageEndedAt - stageStartedAt));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    public List<Stage> stages() {
+
+        return stages.stream()
+                .sorted(Comparator.comparingLong(Stage::offsetNanos))
+                .toList();
+    }
+
+    /**
+     * One line per stage, indented by nesting depth, e.g. {@code   NotificationRepository.save 12 ms}.
+     */
+    public String breakdown() {
+
+        StringBuilder builder = new StringBuilder();
+        for (Stage stage : stages()) {
+            builder.append("  ".repeat(stage.depth() + 1))
+                    .append(stage.name())
+                    .append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMillis(stage.durationNanos()))
+                    .append(" ms")
+                    .append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+    public record Stage(String name, int depth, long offsetNanos, long durationNanos) {
+    }
+}
@@ -0,0 +1,32 @@
+package app.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that reports response serialization as its own stage.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final StageTimer stageTimer;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, StageTimer stageTimer) {
+
+        super(objectMapper);
+        this.stageTimer = stageTimer;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+
+        stageTimer.time("json.serialize", () -> {
+            super.writeInternal(object, type, outputMessage);
+            return null;
+        });
+    }
+}
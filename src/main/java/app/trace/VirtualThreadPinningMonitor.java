@@ -0,0 +1,114 @@
+package app.trace;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier, e.g. on socket I/O inside a
+ * {@code synchronized} block of a mail or JDBC client, which starves the few carrier threads all virtual
+ * threads share. Each pinning longer than {@code notification.tracing.pinned-threshold} is timed under
+ * {@code notification.virtual-threads.pinned}, tagged with the innermost frame outside the JDK; the first
+ * pinning at each site is logged with its stack.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${notification.tracing.pinned-threshold:20ms}") Duration threshold) {
+
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::pinned);
+        stream.startAsync();
+
+        log.info("---Watching for virtual threads pinned longer than %d ms.".formatted(threshold.toMillis()));
+    }
+
+    @PreDestroy
+    public void close() {
+
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void pinned(RecordedEvent event) {
+
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String site = frames.stream()
+                .filter(frame -> !isJdkFrame(frame))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse("unknown");
+
+        Timer.builder("notification.virtual-threads.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (loggedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:{}{}",
+                    event.getDuration().toMillis(),
+                    site,
+                    System.lineSeparator(),
+                    frames.stream()
+                            .limit(LOGGED_FRAMES)
+                            .map(frame -> "\tat " + describe(frame))
+                            .collect(Collectors.joining(System.lineSeparator())));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+
+        return stackTrace == null ? List.of() : stackTrace.getFrames();
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
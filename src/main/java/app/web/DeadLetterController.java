@@ -0,0 +1,33 @@
+package app.web;
+
+import app.event.DeadLetterReplayer;
+import app.web.dto.DeadLetterReplayResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    @Autowired
+    public DeadLetterController(DeadLetterReplayer deadLetterReplayer) {
+        this.deadLetterReplayer = deadLetterReplayer;
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replay(@RequestParam("topic") String topic,
+                                                           @RequestParam(value = "maxRecords", defaultValue = "100") int maxRecords) {
+
+        int replayed = deadLetterReplayer.replay(topic, maxRecords);
+
+        DeadLetterReplayResponse response = DeadLetterReplayResponse.builder()
+                .topic(topic)
+                .replayed(replayed)
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+}
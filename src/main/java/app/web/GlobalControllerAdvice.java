@@ -1,7 +1,13 @@
 package app.web;
 
+import app.exception.AdmissionRejectedException;
+import app.exception.InvalidAttachmentException;
+import app.exception.InvalidImportFileException;
+import app.exception.InvalidReplayRequestException;
+import app.exception.InvalidSuppressionRequestException;
 import app.exception.NotificationPreferenceDisabledException;
 import app.web.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,6 +28,27 @@ public class GlobalControllerAdvice {
                 .body(dto);
     }
 
+    @ExceptionHandler({InvalidAttachmentException.class, InvalidImportFileException.class, InvalidReplayRequestException.class, InvalidSuppressionRequestException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException e) {
+
+        ErrorResponse dto = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(dto);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionRejectedException(AdmissionRejectedException e) {
+
+        ErrorResponse dto = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body(dto);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
 
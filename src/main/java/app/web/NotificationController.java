@@ -2,8 +2,10 @@ package app.web;
 
 import app.model.Notification;
 import app.service.NotificationService;
+import app.web.admission.AdmissionControlled;
 import app.web.dto.NotificationRequest;
 import app.web.dto.NotificationResponse;
+import app.web.dto.NotificationStatsResponse;
 import app.web.mapper.DtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,6 +27,7 @@ public class NotificationController {
     }
 
     @PostMapping
+    @AdmissionControlled
     public ResponseEntity<NotificationResponse> sendNotification(@RequestBody NotificationRequest request) {
 
         Notification notification = notificationService.send(request);
@@ -37,14 +40,13 @@ public class NotificationController {
     @GetMapping
     public ResponseEntity<List<NotificationResponse>> getHistory(@RequestParam("userId") UUID userId) {
 
-        List<Notification> notifications = notificationService.getHistory(userId);
+        return ResponseEntity.ok(notificationService.getHistory(userId));
+    }
 
-        List<NotificationResponse> responses = notifications
-                .stream()
-                .map(DtoMapper::from)
-                .toList();
+    @GetMapping("/stats")
+    public ResponseEntity<NotificationStatsResponse> getStats(@RequestParam("userId") UUID userId) {
 
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(DtoMapper.from(notificationService.getStats(userId)));
     }
 
     @DeleteMapping
@@ -56,6 +58,7 @@ public class NotificationController {
     }
 
     @PutMapping
+    @AdmissionControlled
     public ResponseEntity<Void> retryFailed(@RequestParam("userId") UUID userId) {
 
         notificationService.retryFailed(userId);
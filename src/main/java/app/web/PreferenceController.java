@@ -2,14 +2,19 @@ package app.web;
 
 import app.model.NotificationPreference;
 import app.service.NotificationPreferenceService;
+import app.service.PreferenceImportService;
+import app.web.dto.PreferenceImportResponse;
 import app.web.dto.PreferenceRequest;
 import app.web.dto.PreferenceResponse;
 import app.web.mapper.DtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -17,10 +22,12 @@ import java.util.UUID;
 public class PreferenceController {
 
     private final NotificationPreferenceService notificationPreferenceService;
+    private final PreferenceImportService preferenceImportService;
 
     @Autowired
-    public PreferenceController(NotificationPreferenceService notificationPreferenceService) {
+    public PreferenceController(NotificationPreferenceService notificationPreferenceService, PreferenceImportService preferenceImportService) {
         this.notificationPreferenceService = notificationPreferenceService;
+        this.preferenceImportService = preferenceImportService;
     }
 
     @PostMapping
@@ -40,4 +47,16 @@ public class PreferenceController {
 
         return ResponseEntity.ok(DtoMapper.from(preference));
     }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PreferenceImportResponse> importNdjson(InputStream body) throws IOException {
+
+        return ResponseEntity.ok(preferenceImportService.importNdjson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<PreferenceImportResponse> importCsv(InputStream body) throws IOException {
+
+        return ResponseEntity.ok(preferenceImportService.importCsv(body));
+    }
 }
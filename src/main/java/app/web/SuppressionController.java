@@ -0,0 +1,50 @@
+package app.web;
+
+import app.exception.InvalidSuppressionRequestException;
+import app.model.SuppressionReason;
+import app.suppression.SuppressionList;
+import app.web.dto.SuppressionRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Bounce and complaint webhook target, also used to lift a suppression by hand.
+ */
+@RestController
+@RequestMapping("/api/v1/suppressions")
+public class SuppressionController {
+
+    private final SuppressionList suppressionList;
+
+    @Autowired
+    public SuppressionController(SuppressionList suppressionList) {
+        this.suppressionList = suppressionList;
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> suppress(@RequestBody SuppressionRequest request) {
+
+        requireAddress(request.getAddress());
+        suppressionList.suppress(request.getAddress(), request.getReason() != null ? request.getReason() : SuppressionReason.MANUAL);
+
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> unsuppress(@RequestParam("address") String address) {
+
+        requireAddress(address);
+        suppressionList.unsuppress(address);
+
+        return ResponseEntity.ok(null);
+    }
+
+    private static void requireAddress(String address) {
+
+        if (address == null || address.isBlank()) {
+            throw new InvalidSuppressionRequestException("Address must not be blank.");
+        }
+    }
+}
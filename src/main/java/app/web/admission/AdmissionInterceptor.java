@@ -0,0 +1,40 @@
+package app.web.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Takes an {@link AdmissionLimiter} permit before {@link AdmissionControlled} handlers run and returns it when the
+ * request completes. A rejected request never reaches the handler; its exception is rendered by the controller advice.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionLimiter admissionLimiter;
+
+    public AdmissionInterceptor(AdmissionLimiter admissionLimiter) {
+        this.admissionLimiter = admissionLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        if (handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(AdmissionControlled.class)) {
+            request.setAttribute(PERMIT_ATTRIBUTE, admissionLimiter.acquire());
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionLimiter.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            admissionLimiter.release(permit);
+        }
+    }
+}
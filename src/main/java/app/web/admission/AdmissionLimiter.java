@@ -0,0 +1,135 @@
+package app.web.admission;
+
+import app.config.AdmissionProperties;
+import app.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit with a bounded wait queue. A completed request slower than the latency threshold
+ * cuts the limit by the backoff ratio, at most once per round trip: requests admitted before the last cut were
+ * admitted under the old limit and do not cut it again, so a burst of slow requests shrinks it only once. A fast
+ * request adds one slot while at least half of the limit is in use.
+ * Requests over the limit wait up to {@code maxQueueWait} in a queue of {@code queueCapacity}, and are
+ * rejected once either runs out.
+ */
+public class AdmissionLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    private final AdmissionProperties properties;
+    private final long latencyThresholdNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Counter rejected;
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double smoothedLatencyNanos;
+    private long lastDecreaseAt;
+
+    public AdmissionLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+
+        this.properties = properties;
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.limit = properties.getInitialLimit();
+        this.lastDecreaseAt = System.nanoTime() - 1;
+
+        Gauge.builder("notification.admission.limit", this, AdmissionLimiter::limit).register(meterRegistry);
+        Gauge.builder("notification.admission.in_flight", this, AdmissionLimiter::inFlight).register(meterRegistry);
+        this.rejected = Counter.builder("notification.admission.rejected").register(meterRegistry);
+    }
+
+    public Permit acquire() {
+
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return new Permit(System.nanoTime());
+            }
+
+            if (queued >= properties.getQueueCapacity()) {
+                throw reject("queue is full");
+            }
+
+            queued++;
+            try {
+                long remaining = properties.getMaxQueueWait().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw reject("no slot within " + properties.getMaxQueueWait());
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("interrupted while queued");
+            } finally {
+                queued--;
+            }
+
+            inFlight++;
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Permit permit) {
+
+        long latencyNanos = System.nanoTime() - permit.admittedAt();
+
+        lock.lock();
+        try {
+            int inUse = inFlight--;
+            smoothedLatencyNanos = smoothedLatencyNanos == 0
+                    ? latencyNanos
+                    : smoothedLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+
+            if (latencyNanos > latencyThresholdNanos) {
+                if (permit.admittedAt() - lastDecreaseAt > 0) {
+                    limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+                    lastDecreaseAt = System.nanoTime();
+                }
+            } else if (inUse * 2 >= limit) {
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Must be called while holding the lock. Retry-After is roughly how long the queue ahead takes to drain.
+     */
+    private AdmissionRejectedException reject(String reason) {
+
+        rejected.increment();
+
+        long drainNanos = (long) (smoothedLatencyNanos * (queued + 1) / Math.max(1, (int) limit));
+        Duration retryAfter = Duration.ofSeconds(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(drainNanos) + 1));
+
+        return new AdmissionRejectedException("Too many concurrent requests: %s.".formatted(reason), retryAfter);
+    }
+
+    public record Permit(long admittedAt) {
+    }
+}
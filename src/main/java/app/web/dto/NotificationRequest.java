@@ -1,12 +1,19 @@
 package app.web.dto;
 
+import app.model.NotificationPriority;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class NotificationRequest {
 
     private UUID userId;
@@ -14,4 +21,12 @@ public class NotificationRequest {
     private String subject;
 
     private String body;
+
+    private String htmlBody;
+
+    private List<String> attachments;
+
+    private NotificationPriority priority;
+
+    private LocalDateTime sendAt;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NotificationStatsResponse {
+
+    private long total;
+
+    private long failed;
+
+    private long deleted;
+}
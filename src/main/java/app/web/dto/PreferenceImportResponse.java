@@ -0,0 +1,25 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PreferenceImportResponse {
+
+    private long inserted;
+
+    private long updated;
+
+    private long rejected;
+
+    /**
+     * The first rejected lines; {@link #rejected} holds the full count.
+     */
+    private List<Rejection> rejections;
+
+    public record Rejection(long line, String reason) {
+    }
+}
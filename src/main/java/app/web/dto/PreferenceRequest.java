@@ -1,12 +1,17 @@
 package app.web.dto;
 
+import app.model.NotificationType;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class PreferenceRequest {
 
     private UUID userId;
@@ -14,4 +19,6 @@ public class PreferenceRequest {
     private boolean notificationEnabled;
 
     private String contactInfo;
+
+    private NotificationType type;
 }
\ No newline at end of file
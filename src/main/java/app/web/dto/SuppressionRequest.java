@@ -0,0 +1,18 @@
+package app.web.dto;
+
+import app.model.SuppressionReason;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuppressionRequest {
+
+    private String address;
+
+    private SuppressionReason reason;
+}
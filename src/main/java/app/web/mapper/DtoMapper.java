@@ -1,13 +1,13 @@
 package app.web.mapper;
 
 import app.model.Notification;
+import app.model.NotificationCounter;
 import app.model.NotificationPreference;
 import app.web.dto.NotificationResponse;
+import app.web.dto.NotificationStatsResponse;
 import app.web.dto.PreferenceResponse;
 import lombok.experimental.UtilityClass;
 
-import java.time.LocalDateTime;
-
 @UtilityClass
 public class DtoMapper {
 
@@ -24,9 +24,18 @@ public class DtoMapper {
 
         return NotificationResponse.builder()
                 .subject(notification.getSubject())
-                .createdOn(LocalDateTime.now())
+                .createdOn(notification.getCreatedOn())
                 .status(notification.getStatus())
                 .type(notification.getType())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static NotificationStatsResponse from(NotificationCounter counter) {
+
+        return NotificationStatsResponse.builder()
+                .total(counter.getTotal())
+                .failed(counter.getFailed())
+                .deleted(counter.getDeleted())
+                .build();
+    }
+}
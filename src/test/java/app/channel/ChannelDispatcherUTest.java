@@ -0,0 +1,245 @@
+package app.channel;
+
+import app.config.ChannelProperties;
+import app.model.NotificationPriority;
+import app.model.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelDispatcherUTest {
+
+    private CountDownLatch releaseEmail;
+    private CountDownLatch emailInterrupted;
+    private AtomicInteger emailDeliveries;
+    private NotificationChannel slowEmail;
+    private ChannelDispatcher dispatcher;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setup() {
+
+        releaseEmail = new CountDownLatch(1);
+        emailInterrupted = new CountDownLatch(1);
+        emailDeliveries = new AtomicInteger();
+
+        slowEmail = new NotificationChannel() {
+            @Override
+            public NotificationType type() {
+                return NotificationType.EMAIL;
+            }
+
+            @Override
+            public void deliver(ChannelMessage message) {
+                emailDeliveries.incrementAndGet();
+                // a hung provider call that ignores interrupts until released
+                while (releaseEmail.getCount() > 0) {
+                    try {
+                        releaseEmail.await();
+                    } catch (InterruptedException e) {
+                        emailInterrupted.countDown();
+                    }
+                }
+            }
+        };
+
+        dispatcher = dispatcher(slowEmail, Duration.ofMillis(200));
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        releaseEmail.countDown();
+        callers.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_whenEmailProviderHangs_smsIsStillDelivered() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            callers.submit(() -> dispatcher.dispatch(NotificationType.EMAIL, message()));
+        }
+
+        long start = System.nanoTime();
+        boolean smsDelivered = dispatcher.dispatch(NotificationType.SMS, message());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(smsDelivered);
+        assertTrue(elapsedMillis < 200, "SMS waited on the email bulkhead for " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void dispatch_pastTheTimeout_failsTheQueuedDeliveryAndWaitsForTheInterruptedOne() throws Exception {
+
+        Future<Boolean> running = callers.submit(() -> dispatcher.dispatch(NotificationType.EMAIL, message()));
+        awaitEmailDeliveries(1);
+
+        assertFalse(dispatcher.dispatch(NotificationType.EMAIL, message()));
+        assertTrue(emailInterrupted.await(2, TimeUnit.SECONDS));
+        assertFalse(running.isDone());
+
+        releaseEmail.countDown();
+
+        assertTrue(running.get(2, TimeUnit.SECONDS));
+        assertEquals(1, emailDeliveries.get());
+    }
+
+    @Test
+    void backlogRatio_reportsTheFullestBulkhead() throws Exception {
+
+        // a deadline well past the assertions, so the queued delivery is not expired under a slow scheduler
+        dispatcher.shutdown();
+        dispatcher = dispatcher(slowEmail, Duration.ofMinutes(1));
+
+        // one worker and one slot per lane: wait for the worker to take the first delivery before queueing the second
+        dispatcher.dispatchAsync(NotificationType.EMAIL, message());
+        awaitEmailDeliveries(1);
+        assertEquals(0.5, dispatcher.backlogRatio());
+
+        dispatcher.dispatchAsync(NotificationType.EMAIL, message());
+        awaitBacklogRatio(1);
+
+        // the normal lane is full and would reject the next normal delivery, though the other lanes are empty
+        assertEquals(1, dispatcher.backlogRatio());
+
+        ChannelMessage high = message();
+        high.setPriority(NotificationPriority.HIGH);
+        dispatcher.dispatchAsync(NotificationType.EMAIL, high);
+
+        assertEquals(1, dispatcher.backlogRatio());
+    }
+
+    @Test
+    void dispatchAsync_pastTheTimeout_skipsQueuedDeliveriesAndWaitsForTheInterruptedOne() throws Exception {
+
+        CompletableFuture<Boolean> running = dispatcher.dispatchAsync(NotificationType.EMAIL, message());
+        awaitEmailDeliveries(1);
+        CompletableFuture<Boolean> queued = dispatcher.dispatchAsync(NotificationType.EMAIL, message());
+
+        assertFalse(queued.get(2, TimeUnit.SECONDS));
+        assertTrue(emailInterrupted.await(2, TimeUnit.SECONDS));
+        assertFalse(running.isDone());
+
+        releaseEmail.countDown();
+
+        assertTrue(running.get(2, TimeUnit.SECONDS));
+        assertTrue(dispatcher.dispatchAsync(NotificationType.EMAIL, message()).get(2, TimeUnit.SECONDS));
+        assertEquals(2, emailDeliveries.get());
+    }
+
+    @Test
+    void dispatch_whenNoChannelRegistered_returnsFalse() {
+
+        assertFalse(dispatcher.dispatch(NotificationType.MOBILE, message()));
+    }
+
+    @Test
+    void dispatchAllAsync_mergesIdenticalContentAndMapsEachRecipientsOutcome() throws Exception {
+
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        List<String> singles = new CopyOnWriteArrayList<>();
+
+        NotificationChannel bulkEmail = new NotificationChannel() {
+            @Override
+            public NotificationType type() {
+                return NotificationType.EMAIL;
+            }
+
+            @Override
+            public void deliver(ChannelMessage message) {
+                singles.add(message.getRecipient());
+            }
+
+            @Override
+            public int maxRecipients() {
+                return 2;
+            }
+
+            @Override
+            public Set<String> deliverAll(ChannelMessage message, List<String> recipients) {
+                batches.add(recipients);
+                return recipients.contains("c@example.com") ? Set.of("c@example.com") : Set.of();
+            }
+        };
+
+        ChannelDispatcher bulkDispatcher = new ChannelDispatcher(List.of(bulkEmail), new ChannelProperties(), new SimpleMeterRegistry(), new StandardEnvironment());
+        try {
+            ChannelMessage announcement = ChannelMessage.builder().subject("Maintenance").body("Tonight at 10pm").build();
+            List<ChannelMessage> messages = List.of(
+                    announcement.toBuilder().recipient("a@example.com").build(),
+                    announcement.toBuilder().recipient("b@example.com").build(),
+                    announcement.toBuilder().recipient("c@example.com").build(),
+                    announcement.toBuilder().recipient("a@example.com").build(),
+                    announcement.toBuilder().recipient("d@example.com").build(),
+                    message().toBuilder().recipient("e@example.com").build());
+
+            List<Boolean> delivered = new ArrayList<>();
+            for (CompletableFuture<Boolean> result : bulkDispatcher.dispatchAllAsync(NotificationType.EMAIL, messages)) {
+                delivered.add(result.get(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(List.of(true, true, false, true, true, true), delivered);
+            assertEquals(Set.of(List.of("a@example.com", "b@example.com"), List.of("c@example.com", "a@example.com")), Set.copyOf(batches));
+            assertEquals(Set.of("d@example.com", "e@example.com"), Set.copyOf(singles));
+        } finally {
+            bulkDispatcher.shutdown();
+        }
+    }
+
+    private static ChannelDispatcher dispatcher(NotificationChannel email, Duration emailTimeout) {
+
+        ChannelProperties.Bulkhead emailBulkhead = new ChannelProperties.Bulkhead();
+        emailBulkhead.setPoolSize(1);
+        emailBulkhead.setQueueCapacity(1);
+        emailBulkhead.setTimeout(emailTimeout);
+
+        ChannelProperties properties = new ChannelProperties();
+        properties.getChannels().put(NotificationType.EMAIL, emailBulkhead);
+
+        return new ChannelDispatcher(List.of(email, new SmsChannel()), properties, new SimpleMeterRegistry(), new StandardEnvironment());
+    }
+
+    private void awaitBacklogRatio(double expected) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (dispatcher.backlogRatio() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitEmailDeliveries(int expected) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (emailDeliveries.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private ChannelMessage message() {
+
+        return ChannelMessage.builder()
+                .recipient("test@example.com")
+                .subject("Test Subject")
+                .body("Test Body")
+                .build();
+    }
+}
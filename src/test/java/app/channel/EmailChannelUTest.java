@@ -0,0 +1,185 @@
+package app.channel;
+
+import app.config.AttachmentProperties;
+import app.exception.InvalidAttachmentException;
+import jakarta.mail.Address;
+import jakarta.mail.Part;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailChannelUTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @TempDir
+    private Path root;
+
+    private AttachmentProperties properties;
+    private EmailChannel emailChannel;
+
+    @BeforeEach
+    void setUp() {
+
+        properties = new AttachmentProperties();
+        properties.setRoot(root);
+        properties.setMaxSize(DataSize.ofMegabytes(5));
+        emailChannel = new EmailChannel(mailSender, new AttachmentStore(properties), properties, 50);
+    }
+
+    @Test
+    void deliver_plainText_sendsSimpleMessage() {
+
+        emailChannel.deliver(ChannelMessage.builder().recipient("test@example.com").subject("Subject").body("Body").build());
+
+        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(mailSender, never()).createMimeMessage();
+    }
+
+    @Test
+    void deliver_htmlWithAttachment_streamsFileIntoMultipartMessage() throws Exception {
+
+        byte[] content = new byte[2 * 1024 * 1024];
+        Arrays.fill(content, (byte) 'x');
+        Files.createDirectories(root.resolve("invoices"));
+        Files.write(root.resolve("invoices/invoice-42.pdf"), content);
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage(Session.getInstance(new Properties())));
+
+        emailChannel.deliver(ChannelMessage.builder()
+                .recipient("test@example.com")
+                .subject("Invoice")
+                .body("Your invoice")
+                .htmlBody("<p>Your invoice</p>")
+                .attachments(List.of("invoices/invoice-42.pdf"))
+                .build());
+
+        ArgumentCaptor<MimeMessage> captor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(captor.capture());
+        MimeMessage message = captor.getValue();
+        message.saveChanges();
+
+        MimeMultipart root = (MimeMultipart) message.getContent();
+        MimeBodyPart attachment = (MimeBodyPart) root.getBodyPart(root.getCount() - 1);
+        assertEquals(Part.ATTACHMENT, attachment.getDisposition());
+        assertEquals("invoice-42.pdf", attachment.getFileName());
+        assertEquals("base64", attachment.getEncoding());
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        attachment.getDataHandler().writeTo(decoded);
+        assertArrayEquals(content, decoded.toByteArray());
+
+        CountingOutputStream wire = new CountingOutputStream();
+        message.writeTo(wire);
+        assertTrue(wire.count > content.length * 4L / 3);
+    }
+
+    @Test
+    void deliverAll_sendsOneMessageWithHiddenRecipients() {
+
+        Set<String> failed = emailChannel.deliverAll(
+                ChannelMessage.builder().subject("Maintenance").body("Tonight at 10pm").build(),
+                List.of("a@example.com", "b@example.com", "c@example.com"));
+
+        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender, times(1)).send(captor.capture());
+        assertNull(captor.getValue().getTo());
+        assertArrayEquals(new String[]{"a@example.com", "b@example.com", "c@example.com"}, captor.getValue().getBcc());
+        assertEquals(Set.of(), failed);
+    }
+
+    @Test
+    void deliverAll_mapsRejectedRecipientsFromTheSmtpResponse() throws Exception {
+
+        SendFailedException partial = new SendFailedException("550 mailbox unavailable", null,
+                new Address[]{new InternetAddress("a@example.com"), new InternetAddress("c@example.com")},
+                null,
+                new Address[]{new InternetAddress("B@example.com")});
+        doThrow(new MailSendException(Map.of(new Object(), partial))).when(mailSender).send(any(SimpleMailMessage.class));
+
+        Set<String> failed = emailChannel.deliverAll(
+                ChannelMessage.builder().subject("Maintenance").body("Tonight at 10pm").build(),
+                List.of("a@example.com", "b@example.com", "c@example.com"));
+
+        assertEquals(Set.of("b@example.com"), failed);
+    }
+
+    @Test
+    void deliverAll_whenTheWholeSendFails_throws() {
+
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        ChannelMessage message = ChannelMessage.builder().subject("Maintenance").body("Tonight at 10pm").build();
+        List<String> recipients = List.of("a@example.com", "b@example.com");
+
+        assertThrows(MailSendException.class, () -> emailChannel.deliverAll(message, recipients));
+    }
+
+    @Test
+    void deliver_attachmentOutsideRoot_isRejected() {
+
+        ChannelMessage message = ChannelMessage.builder()
+                .recipient("test@example.com")
+                .subject("Subject")
+                .body("Body")
+                .attachments(List.of("../etc/passwd"))
+                .build();
+
+        assertThrows(InvalidAttachmentException.class, () -> emailChannel.deliver(message));
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void validate_tooLargeAttachment_isRejected() throws Exception {
+
+        Files.write(root.resolve("report.csv"), new byte[(int) DataSize.ofMegabytes(6).toBytes()]);
+
+        AttachmentStore attachmentStore = new AttachmentStore(properties);
+
+        assertThrows(InvalidAttachmentException.class, () -> attachmentStore.validate(List.of("report.csv")));
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
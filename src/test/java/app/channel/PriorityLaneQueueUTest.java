@@ -0,0 +1,80 @@
+package app.channel;
+
+import app.model.NotificationPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityLaneQueueUTest {
+
+    private static final Map<NotificationPriority, Integer> WEIGHTS = Map.of(
+            NotificationPriority.HIGH, 8,
+            NotificationPriority.NORMAL, 3,
+            NotificationPriority.LOW, 1);
+
+    @Test
+    void poll_whenBulkIsQueuedFirst_highPriorityIsStillServedFirst() {
+
+        PriorityLaneQueue queue = new PriorityLaneQueue(10, WEIGHTS, Duration.ofMinutes(1), 4);
+
+        for (int i = 0; i < 3; i++) {
+            queue.offer(task(NotificationPriority.LOW));
+        }
+        for (int i = 0; i < 3; i++) {
+            queue.offer(task(NotificationPriority.HIGH));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(NotificationPriority.HIGH, ((LaneTask) queue.poll()).priority());
+        }
+        assertEquals(NotificationPriority.LOW, ((LaneTask) queue.poll()).priority());
+    }
+
+    @Test
+    void poll_whenLowPriorityWaitedTooLong_servesItAheadOfHigherLanes() throws InterruptedException {
+
+        PriorityLaneQueue queue = new PriorityLaneQueue(10, WEIGHTS, Duration.ofMillis(20), 4);
+
+        queue.offer(task(NotificationPriority.LOW));
+        Thread.sleep(30);
+        queue.offer(task(NotificationPriority.HIGH));
+
+        assertEquals(NotificationPriority.LOW, ((LaneTask) queue.poll()).priority());
+    }
+
+    @Test
+    void poll_whenLowConcurrencyIsReached_holdsBackFurtherLowPriorityWork() {
+
+        PriorityLaneQueue queue = new PriorityLaneQueue(10, WEIGHTS, Duration.ofMinutes(1), 1);
+
+        queue.offer(task(NotificationPriority.LOW));
+        queue.offer(task(NotificationPriority.LOW));
+
+        Runnable running = queue.poll();
+        assertNotNull(running);
+        assertNull(queue.poll());
+        assertEquals(1, queue.size());
+
+        running.run();
+
+        assertNotNull(queue.poll());
+    }
+
+    @Test
+    void offer_whenLaneIsFull_rejectsOnlyThatLane() {
+
+        PriorityLaneQueue queue = new PriorityLaneQueue(1, WEIGHTS, Duration.ofMinutes(1), 4);
+
+        assertTrue(queue.offer(task(NotificationPriority.LOW)));
+        assertFalse(queue.offer(task(NotificationPriority.LOW)));
+        assertTrue(queue.offer(task(NotificationPriority.HIGH)));
+    }
+
+    private LaneTask task(NotificationPriority priority) {
+
+        return new LaneTask(priority, () -> {});
+    }
+}
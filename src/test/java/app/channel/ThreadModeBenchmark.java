@@ -0,0 +1,149 @@
+package app.channel;
+
+import app.config.AttachmentProperties;
+import app.config.ChannelProperties;
+import app.model.NotificationType;
+import app.support.SlowSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Synchronous email sends through the channel dispatcher against a slow local SMTP stand-in, once with
+ * platform threads and once with virtual threads. Request threads are emulated by a pool of Tomcat's default
+ * 200 platform threads, or one virtual thread per request. The email bulkhead keeps platform threads in both
+ * runs, as {@code notification.channels.email.platform-threads} does in production, so the virtual run measures
+ * the deployed configuration. Run with {@code mvn -Pbenchmark test}; the virtual run needs Java 21 and is skipped
+ * otherwise. Prints throughput and latency rather than asserting on them.
+ */
+@Tag("benchmark")
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int BULKHEAD_THREADS = 400;
+    private static final Duration SMTP_DELAY = Duration.ofMillis(100);
+
+    private SlowSmtpServer smtpServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new SlowSmtpServer(SMTP_DELAY);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void platformThreads() throws Exception {
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        try {
+            run("platform", false, requestThreads);
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+        run("virtual", true, new VirtualThreadTaskExecutor("request-"));
+    }
+
+    private void run(String mode, boolean virtualThreads, Executor requestThreads) throws Exception {
+
+        ChannelDispatcher dispatcher = dispatcher(virtualThreads);
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            requestThreads.execute(() -> {
+                long sentAt = System.nanoTime();
+                try {
+                    if (dispatcher.dispatch(NotificationType.EMAIL, message(request))) {
+                        delivered.incrementAndGet();
+                    }
+                } finally {
+                    latencies[request] = System.nanoTime() - sentAt;
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.MINUTES), mode + " run did not finish");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        dispatcher.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-8s threads: %d sends in %d ms (%.0f/s), p50 %d ms, p99 %d ms, SMTP delay %d ms%n",
+                mode,
+                delivered.get(),
+                elapsedMillis,
+                delivered.get() * 1000.0 / elapsedMillis,
+                TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS / 2]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS * 99 / 100]),
+                SMTP_DELAY.toMillis());
+
+        assertEquals(REQUESTS, delivered.get());
+    }
+
+    private ChannelDispatcher dispatcher(boolean virtualThreads) {
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.port());
+
+        AttachmentProperties attachmentProperties = new AttachmentProperties();
+        EmailChannel emailChannel = new EmailChannel(mailSender, new AttachmentStore(attachmentProperties), attachmentProperties, 50);
+
+        ChannelProperties.Bulkhead email = new ChannelProperties.Bulkhead();
+        email.setPoolSize(BULKHEAD_THREADS);
+        email.setQueueCapacity(REQUESTS);
+        email.setTimeout(Duration.ofSeconds(60));
+        email.setPlatformThreads(true);
+
+        ChannelProperties properties = new ChannelProperties();
+        properties.getChannels().put(NotificationType.EMAIL, email);
+
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+
+        return new ChannelDispatcher(List.of(emailChannel), properties, new SimpleMeterRegistry(), environment);
+    }
+
+    private static ChannelMessage message(int request) {
+
+        return ChannelMessage.builder()
+                .recipient("user%d@example.com".formatted(request))
+                .subject("Benchmark")
+                .body("Body " + request)
+                .build();
+    }
+}
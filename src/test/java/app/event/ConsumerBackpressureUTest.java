@@ -0,0 +1,102 @@
+package app.event;
+
+import app.channel.ChannelDispatcher;
+import app.config.BackpressureProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConsumerBackpressureUTest {
+
+    private ChannelDispatcher channelDispatcher;
+    private MessageListenerContainer requests;
+    private MessageListenerContainer requestsRetry;
+    private MessageListenerContainer suppressions;
+    private AtomicReference<Double> heap;
+    private SimpleMeterRegistry meterRegistry;
+    private ConsumerBackpressure backpressure;
+
+    @BeforeEach
+    void setUp() {
+
+        channelDispatcher = mock(ChannelDispatcher.class);
+        requests = container("notification-requests");
+        requestsRetry = container("user-registered-retry-0");
+        suppressions = container("org.springframework.kafka.KafkaListenerEndpointContainer#0");
+
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getAllListenerContainers()).thenReturn(List.of(requests, requestsRetry, suppressions));
+
+        heap = new AtomicReference<>(0.2);
+        meterRegistry = new SimpleMeterRegistry();
+        backpressure = new ConsumerBackpressure(registry, channelDispatcher, new BackpressureProperties(), meterRegistry, () -> heap.get());
+    }
+
+    @Test
+    void check_pausesDispatchListenersAboveTheHighWatermark() {
+
+        when(channelDispatcher.backlogRatio()).thenReturn(0.9);
+
+        backpressure.check();
+        backpressure.check();
+
+        assertTrue(backpressure.isPaused());
+        verify(requests, times(1)).pause();
+        verify(requestsRetry, times(1)).pause();
+        verify(suppressions, never()).pause();
+        assertEquals(1, meterRegistry.get("notification.consumer.paused").gauge().value());
+        assertEquals(1, meterRegistry.get("notification.consumer.pauses").counter().count());
+    }
+
+    @Test
+    void check_staysPausedBetweenTheWatermarks_andResumesBelowTheLowOne() {
+
+        when(channelDispatcher.backlogRatio()).thenReturn(0.9, 0.6, 0.3);
+
+        backpressure.check();
+        backpressure.check();
+
+        assertTrue(backpressure.isPaused());
+        verify(requests, never()).resume();
+
+        backpressure.check();
+
+        assertFalse(backpressure.isPaused());
+        verify(requests).resume();
+        verify(requestsRetry).resume();
+        assertEquals(0, meterRegistry.get("notification.consumer.paused").gauge().value());
+    }
+
+    @Test
+    void check_pausesOnHeapPressure_andWaitsForHeapToDropBeforeResuming() {
+
+        when(channelDispatcher.backlogRatio()).thenReturn(0.0);
+        heap.set(0.9);
+
+        backpressure.check();
+        assertTrue(backpressure.isPaused());
+
+        heap.set(0.75);
+        backpressure.check();
+        assertTrue(backpressure.isPaused());
+
+        heap.set(0.5);
+        backpressure.check();
+        assertFalse(backpressure.isPaused());
+    }
+
+    private static MessageListenerContainer container(String listenerId) {
+
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getListenerId()).thenReturn(listenerId);
+        return container;
+    }
+}
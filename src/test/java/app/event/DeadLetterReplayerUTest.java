@@ -0,0 +1,88 @@
+package app.event;
+
+import app.exception.InvalidReplayRequestException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DeadLetterReplayerUTest {
+
+    private static final String DLT = "notification-requested.v1-dlt";
+
+    private final DeadLetterReplayer replayer = new DeadLetterReplayer(new KafkaProperties());
+
+    @Test
+    void replay_whenTopicIsNotADeadLetterTopic_isRejected() {
+
+        assertThrows(InvalidReplayRequestException.class, () -> replayer.replay("notification-requested.v1", 10));
+    }
+
+    @Test
+    void replay_whenMaxRecordsIsNotPositive_isRejected() {
+
+        assertThrows(InvalidReplayRequestException.class, () -> replayer.replay("notification-requested.v1-dlt", 0));
+        assertThrows(InvalidReplayRequestException.class, () -> replayer.replay("notification-requested.v1-dlt", -5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_keepsPollingUntilTheEndOffsetsCapturedAtTheStart() {
+
+        TopicPartition partition = new TopicPartition(DLT, 0);
+        MockConsumer<byte[], byte[]> consumer = spy(new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST));
+        consumer.updatePartitions(DLT, List.of(new PartitionInfo(DLT, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 2L));
+
+        // the first poll comes back empty, as it does while the fetch is still in flight
+        consumer.schedulePollTask(() -> {
+        });
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, "first"));
+            consumer.addRecord(record(1, "second"));
+            consumer.addRecord(record(2, "dead-lettered after the replay started"));
+        });
+
+        ConsumerFactory<byte[], byte[]> consumerFactory = mock(ConsumerFactory.class);
+        KafkaTemplate<byte[], byte[]> replayTemplate = mock(KafkaTemplate.class);
+        when(consumerFactory.createConsumer(any(), any(), any(), any(Properties.class))).thenReturn(consumer);
+        when(replayTemplate.send(ArgumentMatchers.<ProducerRecord<byte[], byte[]>>any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        int replayed = new DeadLetterReplayer(consumerFactory, replayTemplate).replay(DLT, 10);
+
+        ArgumentCaptor<ProducerRecord<byte[], byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(replayTemplate, times(2)).send(sent.capture());
+
+        assertEquals(2, replayed);
+        assertEquals(List.of("first", "second"), sent.getAllValues().stream().map(record -> new String(record.value(), StandardCharsets.UTF_8)).toList());
+        assertEquals(Set.of("notification-requested.v1"), Set.copyOf(sent.getAllValues().stream().map(ProducerRecord::topic).toList()));
+        verify(consumer).commitSync(Map.of(partition, new OffsetAndMetadata(2)));
+    }
+
+    private static ConsumerRecord<byte[], byte[]> record(long offset, String value) {
+
+        return new ConsumerRecord<>(DLT, 0, offset, null, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
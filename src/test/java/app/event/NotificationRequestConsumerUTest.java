@@ -0,0 +1,98 @@
+package app.event;
+
+import app.exception.InvalidNotificationRequestException;
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationRequestConsumerUTest {
+
+    private static final String TOPIC = "notification-requested.v1";
+
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @InjectMocks
+    private NotificationRequestConsumer consumer;
+
+    @Test
+    void consumeRequests_whenAllRecordsAreValid_acceptsBatchAndAcknowledges() {
+
+        ConsumerRecord<String, NotificationRequest> first = record(0, request());
+        ConsumerRecord<String, NotificationRequest> second = record(1, request());
+
+        consumer.consumeRequests(List.of(first, second), acknowledgment);
+
+        verify(notificationService).accept(List.of(first.value(), second.value()));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void consumeRequests_whenRecordFailedDeserialization_storesPrecedingRecordsAndReportsTheBadOne() {
+
+        ConsumerRecord<String, NotificationRequest> valid = record(0, request());
+        ConsumerRecord<String, NotificationRequest> poison = record(1, null);
+        SerializationUtils.deserializationException(poison.headers(), "{not json".getBytes(), new IllegalStateException("Unexpected character"), false);
+        ConsumerRecord<String, NotificationRequest> after = record(2, request());
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumeRequests(List.of(valid, poison, after), acknowledgment));
+
+        assertEquals(poison, e.getRecord());
+        assertInstanceOf(DeserializationException.class, e.getCause());
+        verify(notificationService).accept(List.of(valid.value()));
+        verifyNoInteractions(acknowledgment);
+    }
+
+    @Test
+    void consumeRequests_whenRecordLacksARequiredField_storesPrecedingRecordsAndReportsTheBadOne() {
+
+        ConsumerRecord<String, NotificationRequest> valid = record(0, request());
+        NotificationRequest blankSubject = request();
+        blankSubject.setSubject(" ");
+        ConsumerRecord<String, NotificationRequest> invalid = record(1, blankSubject);
+        ConsumerRecord<String, NotificationRequest> after = record(2, request());
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumeRequests(List.of(valid, invalid, after), acknowledgment));
+
+        assertEquals(invalid, e.getRecord());
+        assertInstanceOf(InvalidNotificationRequestException.class, e.getCause());
+        verify(notificationService).accept(List.of(valid.value()));
+        verifyNoInteractions(acknowledgment);
+    }
+
+    private ConsumerRecord<String, NotificationRequest> record(long offset, NotificationRequest value) {
+
+        return new ConsumerRecord<>(TOPIC, 0, offset, null, value);
+    }
+
+    private NotificationRequest request() {
+
+        return NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .subject("Test Subject")
+                .body("Test Body")
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package app.history;
+
+import app.config.HistoryCacheProperties;
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.web.dto.NotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecentHistoryCacheUTest {
+
+    private HistoryCacheProperties properties;
+    private RecentHistoryCache cache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+
+        properties = new HistoryCacheProperties();
+        properties.setEntriesPerUser(3);
+        cache = new RecentHistoryCache(properties, new SimpleMeterRegistry());
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void get_loadsOnceThenServesNewestFirstFromMemory() {
+
+        AtomicInteger loads = new AtomicInteger();
+        List<Notification> rows = List.of(notification("second", 1), notification("first", 2));
+
+        cache.get(userId, limit -> {
+            loads.incrementAndGet();
+            assertEquals(4, limit);
+            return rows;
+        });
+        RecentHistoryCache.Recent cached = cache.get(userId, limit -> fail("expected a cache hit"));
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of("second", "first"), subjects(cached));
+        assertTrue(cached.complete());
+    }
+
+    @Test
+    void writes_updateCachedHistoryInPlace() {
+
+        Notification failed = notification("failed", 1);
+        failed.setStatus(NotificationStatus.FAILED);
+        cache.get(userId, limit -> List.of(failed));
+
+        cache.created(List.of(notification("a", -2), notification("b", -3), notification("c", -4)));
+        cache.statusChanged(userId, List.of(failed.getId()), NotificationStatus.SUCCEEDED, NotificationType.EMAIL);
+
+        // the buffer holds three entries, so the oldest one fell out before the status change
+        RecentHistoryCache.Recent cached = cache.get(userId, limit -> fail("expected a cache hit"));
+        assertEquals(List.of("c", "b", "a"), subjects(cached));
+        assertFalse(cached.complete());
+        assertFalse(cached.ids().contains(failed.getId()));
+
+        cache.deletedAll(userId);
+        assertEquals(List.of(), subjects(cache.get(userId, limit -> fail("expected a cache hit"))));
+        assertTrue(cache.get(userId, limit -> fail("expected a cache hit")).complete());
+    }
+
+    @Test
+    void statusChanged_updatesEntryStillInTheBuffer() {
+
+        Notification failed = notification("failed", 1);
+        failed.setStatus(NotificationStatus.FAILED);
+        cache.get(userId, limit -> List.of(failed));
+
+        cache.statusChanged(userId, List.of(failed.getId()), NotificationStatus.SUCCEEDED, NotificationType.EMAIL);
+
+        assertEquals(NotificationStatus.SUCCEEDED, cache.get(userId, limit -> fail("expected a cache hit")).newestFirst().get(0).getStatus());
+    }
+
+    @Test
+    void updated_leavesNotificationsOutsideTheBufferOut() {
+
+        Notification dropped = notification("dropped", 10);
+        cache.get(userId, limit -> List.of(notification("c", 1), notification("b", 2), notification("a", 3), dropped));
+
+        dropped.setStatus(NotificationStatus.FAILED);
+        cache.updated(List.of(dropped));
+
+        RecentHistoryCache.Recent cached = cache.get(userId, limit -> fail("expected a cache hit"));
+        assertEquals(List.of("c", "b", "a"), subjects(cached));
+        assertFalse(cached.complete());
+    }
+
+    @Test
+    void created_keepsTheBufferInCreatedOnOrder() {
+
+        cache.get(userId, limit -> List.of(notification("newest", 1), notification("oldest", 5)));
+
+        cache.created(List.of(notification("middle", 3)));
+        assertEquals(List.of("newest", "middle", "oldest"), subjects(cache.get(userId, limit -> fail("expected a cache hit"))));
+
+        // full: a row older than every entry stays out, a newer one pushes the oldest out
+        cache.created(List.of(notification("too old", 9)));
+        cache.created(List.of(notification("second", 2)));
+
+        RecentHistoryCache.Recent cached = cache.get(userId, limit -> fail("expected a cache hit"));
+        assertEquals(List.of("newest", "second", "middle"), subjects(cached));
+        assertFalse(cached.complete());
+    }
+
+    @Test
+    void get_doesNotInstallALoadThatRacedWithAWrite() {
+
+        cache.get(userId, limit -> {
+            cache.created(List.of(notification("written during load", 2)));
+            return List.of(notification("stale", 1));
+        });
+
+        RecentHistoryCache.Recent reloaded = cache.get(userId, limit -> List.of(notification("fresh", 3)));
+
+        assertEquals(List.of("fresh"), subjects(reloaded));
+    }
+
+    @Test
+    void get_reloadsHistoryOlderThanTheTtl() {
+
+        properties.setTtl(Duration.ZERO);
+        cache = new RecentHistoryCache(properties, new SimpleMeterRegistry());
+
+        cache.get(userId, limit -> List.of(notification("deleted on another replica", 1)));
+        RecentHistoryCache.Recent reloaded = cache.get(userId, limit -> List.of());
+
+        assertEquals(List.of(), subjects(reloaded));
+        assertEquals(1, cache.userCount());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedUsersPastTheMemoryBudget() {
+
+        properties.setMaxMemory(DataSize.ofBytes(1_000));
+        cache = new RecentHistoryCache(properties, new SimpleMeterRegistry());
+
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID user = UUID.randomUUID();
+            users.add(user);
+            cache.get(user, limit -> List.of(notification("subject", 1)));
+        }
+
+        assertTrue(cache.estimatedBytes() <= 1_000);
+        assertTrue(cache.userCount() < users.size());
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(users.get(0), limit -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals(1, loads.get());
+    }
+
+    private Notification notification(String subject, int minutesAgo) {
+
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .subject(subject)
+                .createdOn(LocalDateTime.now().minusMinutes(minutesAgo))
+                .status(NotificationStatus.SUCCEEDED)
+                .type(NotificationType.EMAIL)
+                .build();
+    }
+
+    private static List<String> subjects(RecentHistoryCache.Recent recent) {
+        return recent.newestFirst().stream().map(NotificationResponse::getSubject).toList();
+    }
+}
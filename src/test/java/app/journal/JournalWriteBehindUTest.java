@@ -0,0 +1,171 @@
+package app.journal;
+
+import app.config.JournalProperties;
+import app.model.JournalCheckpoint;
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
+import app.repository.JournalCheckpointRepository;
+import app.service.NotificationStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JournalWriteBehindUTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private NotificationStore notificationStore;
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private JournalWriteBehind writeBehind;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+
+        writeBehind = new JournalWriteBehind(notificationStore, checkpointRepository, transactionTemplate, new ObjectMapper().findAndRegisterModules(), properties);
+        writeBehind.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.close();
+    }
+
+    @Test
+    void append_assignsTheIdBeforeJournaling() {
+
+        Notification notification = notification(UUID.randomUUID(), "Subject");
+
+        assertTrue(writeBehind.append(notification, NotificationTransition.CREATED));
+
+        assertNotNull(notification.getId());
+        assertEquals(1, writeBehind.backlogSize());
+    }
+
+    @Test
+    void append_withMissingRequiredField_isNotJournaled() {
+
+        Notification notification = notification(UUID.randomUUID(), null);
+
+        assertFalse(writeBehind.append(notification, NotificationTransition.CREATED));
+
+        assertNull(notification.getId());
+        assertEquals(0, writeBehind.backlogSize());
+    }
+
+    @Test
+    void drain_whenTheDatabaseRejectsAnEntry_quarantinesItAndDrainsTheRest() throws Exception {
+
+        when(notificationStore.saveAll(anyList(), any())).thenAnswer(inv -> {
+            List<Notification> notifications = inv.getArgument(0);
+            if (notifications.stream().anyMatch(notification -> notification.getSubject().equals("rejected"))) {
+                throw new DataIntegrityViolationException("Data too long for column 'subject'");
+            }
+            return notifications;
+        });
+
+        Notification first = notification(UUID.randomUUID(), "first");
+        Notification rejected = notification(UUID.randomUUID(), "rejected");
+        Notification last = notification(UUID.randomUUID(), "last");
+        writeBehind.append(first, NotificationTransition.CREATED);
+        writeBehind.append(rejected, NotificationTransition.CREATED);
+        writeBehind.append(last, NotificationTransition.CREATED);
+
+        writeBehind.drain();
+
+        assertEquals(0, writeBehind.backlogSize());
+
+        List<String> quarantined = Files.readAllLines(directory.resolve("quarantine.ndjson"));
+        assertEquals(1, quarantined.size());
+        assertTrue(quarantined.get(0).contains(rejected.getId().toString()));
+
+        ArgumentCaptor<JournalCheckpoint> checkpoints = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(checkpoints.capture());
+        assertEquals(3, checkpoints.getValue().getSequence());
+    }
+
+    @Test
+    void drain_whenTheDatabaseIsUnavailable_keepsTheEntriesForTheNextDrain() {
+
+        when(notificationStore.saveAll(anyList(), any())).thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"));
+
+        writeBehind.append(notification(UUID.randomUUID(), "first"), NotificationTransition.CREATED);
+        writeBehind.append(notification(UUID.randomUUID(), "second"), NotificationTransition.CREATED);
+
+        assertThrows(QueryTimeoutException.class, () -> writeBehind.drain());
+
+        assertEquals(2, writeBehind.backlogSize());
+        assertFalse(Files.exists(directory.resolve("quarantine.ndjson")));
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    void flush_drainsThroughTheUsersLastEntryOnly() {
+
+        UUID userId = UUID.randomUUID();
+
+        writeBehind.append(notification(UUID.randomUUID(), "other user"), NotificationTransition.CREATED);
+        writeBehind.append(notification(userId, "user"), NotificationTransition.CREATED);
+        writeBehind.append(notification(UUID.randomUUID(), "later"), NotificationTransition.CREATED);
+
+        writeBehind.flush(userId);
+
+        assertEquals(1, writeBehind.backlogSize());
+
+        writeBehind.flush(userId);
+
+        verify(notificationStore, times(1)).saveAll(anyList(), any());
+    }
+
+    private static Notification notification(UUID userId, String subject) {
+
+        return Notification.builder()
+                .subject(subject)
+                .body("Body")
+                .createdOn(LocalDateTime.now())
+                .status(NotificationStatus.SUCCEEDED)
+                .type(NotificationType.EMAIL)
+                .userId(userId)
+                .deleted(false)
+                .build();
+    }
+}
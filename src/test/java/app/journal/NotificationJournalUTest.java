@@ -0,0 +1,138 @@
+package app.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationJournalUTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final Duration GROUP_COMMIT = Duration.ofMillis(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopen_replaysRecordsInSequenceOrder() throws Exception {
+
+        try (NotificationJournal journal = open(SEGMENT_SIZE, new ArrayList<>())) {
+            for (String payload : List.of("a", "b", "c")) {
+                journal.durable(journal.append(bytes(payload), sequence -> {})).get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        List<NotificationJournal.Record> replayed = new ArrayList<>();
+        try (NotificationJournal journal = open(SEGMENT_SIZE, replayed)) {
+            assertEquals(4, journal.append(bytes("d"), sequence -> {}));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), replayed.stream().map(NotificationJournal.Record::sequence).toList());
+        assertEquals(List.of("a", "b", "c"), replayed.stream().map(record -> new String(record.payload(), StandardCharsets.UTF_8)).toList());
+    }
+
+    @Test
+    void reopen_truncatesTornTailAndContinuesAfterLastIntactRecord() throws Exception {
+
+        try (NotificationJournal journal = open(SEGMENT_SIZE, new ArrayList<>())) {
+            for (String payload : List.of("first", "second", "third")) {
+                journal.durable(journal.append(bytes(payload), sequence -> {})).get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        // flip a payload byte of the third record, as a crash mid-write would leave it
+        int thirdRecordPayload = (16 + 5) + (16 + 6) + 16;
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), thirdRecordPayload);
+        }
+
+        List<NotificationJournal.Record> replayed = new ArrayList<>();
+        try (NotificationJournal journal = open(SEGMENT_SIZE, replayed)) {
+            assertEquals(3, journal.append(bytes("again"), sequence -> {}));
+        }
+        assertEquals(List.of(1L, 2L), replayed.stream().map(NotificationJournal.Record::sequence).toList());
+
+        List<NotificationJournal.Record> afterRepair = new ArrayList<>();
+        open(SEGMENT_SIZE, afterRepair).close();
+        assertEquals("again", new String(afterRepair.get(2).payload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void deleteThrough_removesFullyDrainedSegmentsButKeepsTheActiveOne() throws Exception {
+
+        // 16 byte header + 40 byte payload leaves room for one record per 64 byte segment
+        try (NotificationJournal journal = open(64, new ArrayList<>())) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(new byte[40], sequence -> {});
+            }
+            assertEquals(5, journal.segmentCount());
+
+            journal.deleteThrough(3);
+            assertEquals(2, journal.segmentCount());
+
+            journal.deleteThrough(5);
+            assertEquals(1, journal.segmentCount());
+        }
+
+        List<NotificationJournal.Record> replayed = new ArrayList<>();
+        open(64, replayed).close();
+        assertEquals(List.of(5L), replayed.stream().map(NotificationJournal.Record::sequence).toList());
+    }
+
+    @Test
+    void append_fromConcurrentWriters_completesEveryDurableFuture() throws Exception {
+
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+
+        try (NotificationJournal journal = open(1024 * 1024, new ArrayList<>())) {
+
+            List<CompletableFuture<Void>> durable = IntStream.range(0, 500)
+                    .mapToObj(i -> CompletableFuture
+                            .supplyAsync(() -> journal.append(bytes("payload-" + i), sequence -> {}), writers)
+                            .thenCompose(journal::durable))
+                    .toList();
+
+            CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            writers.shutdownNow();
+        }
+
+        List<NotificationJournal.Record> replayed = new ArrayList<>();
+        open(1024 * 1024, replayed).close();
+        assertEquals(500, replayed.size());
+    }
+
+    private NotificationJournal open(int segmentSize, List<NotificationJournal.Record> replayed) throws IOException {
+        return NotificationJournal.open(directory, segmentSize, GROUP_COMMIT, replayed::add);
+    }
+
+    private Path onlySegment() throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static byte[] bytes(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package app.preference;
+
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreferenceTableUTest {
+
+    @Test
+    void put_thenGet_returnsADetachedCopyOfTheStoredFields() {
+
+        PreferenceTable table = new PreferenceTable(16);
+        UUID userId = UUID.randomUUID();
+
+        table.put(userId, NotificationType.SMS, true, "+359888000000", 1);
+
+        NotificationPreference preference = table.get(userId);
+        assertEquals(userId, preference.getUserId());
+        assertEquals(NotificationType.SMS, preference.getType());
+        assertTrue(preference.isEnabled());
+        assertEquals("+359888000000", preference.getContactInfo());
+        assertNull(table.get(UUID.randomUUID()));
+    }
+
+    @Test
+    void put_ignoresAnOlderVersionOfTheSameUser() {
+
+        PreferenceTable table = new PreferenceTable(16);
+        UUID userId = UUID.randomUUID();
+
+        assertTrue(table.put(userId, NotificationType.EMAIL, false, "new@example.com", 20));
+        assertFalse(table.put(userId, NotificationType.EMAIL, true, "old@example.com", 10));
+        assertTrue(table.put(userId, NotificationType.EMAIL, false, "new@example.com", 20));
+
+        assertEquals("new@example.com", table.get(userId).getContactInfo());
+        assertFalse(table.get(userId).isEnabled());
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void put_growsPastTheExpectedSizeWithoutLosingEntries() {
+
+        PreferenceTable table = new PreferenceTable(4);
+        List<UUID> userIds = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            table.put(userId, NotificationType.EMAIL, i % 2 == 0, "user" + i + "@example.com", i);
+        }
+
+        assertEquals(10_000, table.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            NotificationPreference preference = table.get(userIds.get(i));
+            assertEquals("user" + i + "@example.com", preference.getContactInfo());
+            assertEquals(i % 2 == 0, preference.isEnabled());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package app.preference;
+
+import app.config.PreferenceViewProperties;
+import app.event.payload.PreferenceChangedEvent;
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+import app.repository.NotificationPreferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PreferenceViewUTest {
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private PreferenceView view;
+
+    @BeforeEach
+    void setUp() {
+
+        view = new PreferenceView(preferenceRepository, kafkaTemplate, new KafkaProperties(), new PreferenceViewProperties());
+    }
+
+    @Test
+    void republishFailed_publishesTheCurrentRowOfUsersWhosePublishFailed() {
+
+        NotificationPreference sent = preference(1, "old@example.com");
+        NotificationPreference current = preference(2, "new@example.com");
+        current.setUserId(sent.getUserId());
+
+        when(kafkaTemplate.send(eq(PreferenceView.TOPIC), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(preferenceRepository.findAllByUserIdIn(List.of(sent.getUserId()))).thenReturn(List.of(current));
+
+        view.publishAfterCommit(List.of(sent));
+        view.republishFailed();
+        view.republishFailed();
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate, times(2)).send(eq(PreferenceView.TOPIC), eq(sent.getUserId().toString()), events.capture());
+        PreferenceChangedEvent retried = (PreferenceChangedEvent) events.getAllValues().get(1);
+        assertEquals(2, retried.getVersion());
+        assertEquals("new@example.com", retried.getContactInfo());
+    }
+
+    private static NotificationPreference preference(long version, String contactInfo) {
+
+        return NotificationPreference.builder()
+                .userId(UUID.randomUUID())
+                .type(NotificationType.EMAIL)
+                .enabled(true)
+                .contactInfo(contactInfo)
+                .updatedOn(LocalDateTime.now())
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package app.schedule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimingWheelUTest {
+
+    private HashedTimingWheel<String> wheel;
+
+    @AfterEach
+    void tearDown() {
+
+        wheel.stop();
+    }
+
+    @Test
+    void schedule_firesItemsInDeadlineOrderAndNotBeforeTheirDeadline() throws InterruptedException {
+
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        List<Long> firedAfterMillis = new CopyOnWriteArrayList<>();
+
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(1), 16, 100, item -> {
+            fired.add(item);
+            firedAfterMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            done.countDown();
+        }, "test-wheel");
+        wheel.start();
+
+        wheel.schedule("late", TimeUnit.MILLISECONDS.toNanos(60));
+        wheel.schedule("early", TimeUnit.MILLISECONDS.toNanos(10));
+        wheel.schedule("middle", TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("early", "middle", "late"), fired);
+        assertTrue(firedAfterMillis.get(2) >= 60, "fired after " + firedAfterMillis.get(2) + "ms");
+    }
+
+    @Test
+    void schedule_whenDeadlineAlreadyPassed_firesOnNextTick() throws InterruptedException {
+
+        CountDownLatch done = new CountDownLatch(1);
+
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(1), 16, 100, item -> done.countDown(), "test-wheel");
+        wheel.start();
+
+        wheel.schedule("overdue", -TimeUnit.HOURS.toNanos(1));
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_whenBurstExceedsTickBudget_spreadsItOverFollowingTicks() throws InterruptedException {
+
+        CountDownLatch done = new CountDownLatch(10);
+        long start = System.nanoTime();
+        List<Long> firedAfterMillis = new CopyOnWriteArrayList<>();
+
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(10), 16, 2, item -> {
+            firedAfterMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            done.countDown();
+        }, "test-wheel");
+        wheel.start();
+
+        for (int i = 0; i < 10; i++) {
+            wheel.schedule("item-" + i, TimeUnit.MILLISECONDS.toNanos(20));
+        }
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAfterMillis.get(9) - firedAfterMillis.get(0) >= 30,
+                "burst released within " + (firedAfterMillis.get(9) - firedAfterMillis.get(0)) + "ms");
+    }
+}
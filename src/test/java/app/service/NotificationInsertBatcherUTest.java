@@ -0,0 +1,157 @@
+package app.service;
+
+import app.config.InsertBatchProperties;
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class NotificationInsertBatcherUTest {
+
+    private InsertBatchProperties properties;
+    private NotificationStore notificationStore;
+    private NotificationInsertBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+
+        properties = new InsertBatchProperties();
+        properties.setMaxBatchSize(3);
+        properties.setMaxDelay(Duration.ofSeconds(1));
+
+        notificationStore = mock(NotificationStore.class);
+        batcher = newBatcher();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    void submit_writesConcurrentRowsInOneBatch_andCompletesEveryCaller() throws Exception {
+
+        when(notificationStore.saveAll(anyList(), eq(NotificationTransition.CREATED))).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> notifications = List.of(notification(), notification(), notification());
+        List<CompletableFuture<Notification>> results = notifications
+                .stream()
+                .map(notification -> batcher.submit(notification, NotificationTransition.CREATED))
+                .toList();
+
+        for (int i = 0; i < notifications.size(); i++) {
+            assertSame(notifications.get(i), results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        verify(notificationStore, times(1)).saveAll(notifications, NotificationTransition.CREATED);
+        verify(notificationStore, never()).save(any(), any());
+    }
+
+    @Test
+    void submit_whenTheBatchFails_retriesRowByRowAndFailsOnlyTheBadRow() throws Exception {
+
+        Notification good = notification();
+        Notification bad = notification();
+
+        when(notificationStore.saveAll(anyList(), any())).thenThrow(new IllegalStateException("batch failed"));
+        when(notificationStore.save(good, NotificationTransition.CREATED)).thenReturn(good);
+        when(notificationStore.save(bad, NotificationTransition.CREATED)).thenThrow(new IllegalArgumentException("bad row"));
+
+        CompletableFuture<Notification> goodResult = batcher.submit(good, NotificationTransition.CREATED);
+        CompletableFuture<Notification> badResult = batcher.submit(bad, NotificationTransition.CREATED);
+
+        assertSame(good, goodResult.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> badResult.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    @Test
+    void insert_afterClose_writesTheRowOnTheCallingThread() {
+
+        Notification notification = notification();
+        when(notificationStore.save(notification, NotificationTransition.CREATED)).thenReturn(notification);
+
+        batcher.close();
+
+        assertSame(notification, batcher.insert(notification, NotificationTransition.CREATED));
+        verify(notificationStore, never()).saveAll(anyList(), any());
+    }
+
+    @Test
+    void insert_pastTheTimeout_waitsForTheBatchTheWriterAlreadyHolds() {
+
+        batcher.close();
+        properties.setInsertTimeout(Duration.ofMillis(100));
+        batcher = newBatcher();
+
+        Notification notification = notification();
+        when(notificationStore.saveAll(anyList(), eq(NotificationTransition.CREATED))).thenAnswer(inv -> inv.getArgument(0));
+
+        // the writer keeps collecting for max-delay, well past the timeout, then commits the row
+        assertSame(notification, batcher.insert(notification, NotificationTransition.CREATED));
+        verify(notificationStore).saveAll(List.of(notification), NotificationTransition.CREATED);
+    }
+
+    @Test
+    void insert_pastTheTimeout_withdrawsTheRowTheWriterHasNotTaken() throws Exception {
+
+        batcher.close();
+        properties.setMaxBatchSize(1);
+        properties.setInsertTimeout(Duration.ofMillis(100));
+        batcher = newBatcher();
+
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        when(notificationStore.saveAll(anyList(), eq(NotificationTransition.CREATED))).thenAnswer(inv -> {
+            releaseWriter.await();
+            return inv.getArgument(0);
+        });
+
+        Notification first = notification();
+        Notification withdrawn = notification();
+        CompletableFuture<Notification> firstResult = batcher.submit(first, NotificationTransition.CREATED);
+
+        assertThrows(IllegalStateException.class, () -> batcher.insert(withdrawn, NotificationTransition.CREATED));
+
+        releaseWriter.countDown();
+        assertSame(first, firstResult.get(5, TimeUnit.SECONDS));
+        batcher.close();
+        verify(notificationStore).saveAll(List.of(first), NotificationTransition.CREATED);
+        verify(notificationStore, never()).saveAll(eq(List.of(withdrawn)), any());
+    }
+
+    private NotificationInsertBatcher newBatcher() {
+        return new NotificationInsertBatcher(notificationStore, new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+    }
+
+    private static Notification notification() {
+
+        return Notification.builder()
+                .subject("Subject")
+                .body("Body")
+                .createdOn(LocalDateTime.now())
+                .status(NotificationStatus.SUCCEEDED)
+                .type(NotificationType.EMAIL)
+                .userId(UUID.randomUUID())
+                .deleted(false)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package app.service;
+
+import app.history.RecentHistoryCache;
+import app.model.*;
+import app.repository.NotificationRepository;
+import app.repository.OutboxEventRepository;
+import app.web.dto.NotificationResponse;
+import app.web.mapper.DtoMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationStoreUTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private RecentHistoryCache historyCache;
+    @Mock
+    private NotificationCounterService counterService;
+
+    @InjectMocks
+    private NotificationStore notificationStore;
+
+    @Test
+    void save_recordsStatusEventForTheSavedRow() {
+
+        Notification notification = notification(NotificationStatus.FAILED);
+
+        when(notificationRepository.save(notification)).thenReturn(notification);
+
+        notificationStore.save(notification, NotificationTransition.RETRIED);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+
+        OutboxEvent event = captor.getValue();
+        assertEquals(notification.getId(), event.getNotificationId());
+        assertEquals(notification.getUserId(), event.getUserId());
+        assertEquals(NotificationTransition.RETRIED, event.getTransition());
+        assertEquals(NotificationStatus.FAILED, event.getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_recordsOneEventPerRowInASingleStatement() {
+
+        List<Notification> notifications = List.of(notification(NotificationStatus.PENDING), notification(NotificationStatus.PENDING));
+
+        when(notificationRepository.saveAll(notifications)).thenReturn(notifications);
+
+        notificationStore.saveAll(notifications, NotificationTransition.CREATED);
+
+        ArgumentCaptor<Collection<UUID>> captor = ArgumentCaptor.forClass(Collection.class);
+        InOrder inOrder = inOrder(notificationRepository, outboxEventRepository);
+        inOrder.verify(notificationRepository).flush();
+        inOrder.verify(outboxEventRepository).insertForNotifications(captor.capture(), eq(NotificationTransition.CREATED), any());
+        verify(outboxEventRepository, never()).save(any());
+        verify(outboxEventRepository, never()).saveAll(anyList());
+
+        assertEquals(List.of(notifications.get(0).getId(), notifications.get(1).getId()), captor.getValue());
+        verify(notificationRepository, times(1)).saveAll(anyList());
+        verify(historyCache).created(notifications);
+    }
+
+    @Test
+    void updateStatus_recordsEventsForTheUpdatedRowsOnlyThenUpdates() {
+
+        UUID userId = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        when(notificationRepository.updateStatus(ids, NotificationStatus.FAILED, NotificationStatus.SUCCEEDED, NotificationType.EMAIL)).thenReturn(2);
+
+        notificationStore.updateStatus(userId, ids, NotificationStatus.FAILED, NotificationStatus.SUCCEEDED, NotificationType.EMAIL, NotificationTransition.RETRIED);
+
+        InOrder inOrder = inOrder(outboxEventRepository, notificationRepository);
+        inOrder.verify(outboxEventRepository).insertForStatusChange(eq(ids), eq(NotificationStatus.FAILED), eq(NotificationStatus.SUCCEEDED), eq(NotificationType.EMAIL), eq(NotificationTransition.RETRIED), any());
+        inOrder.verify(notificationRepository).updateStatus(ids, NotificationStatus.FAILED, NotificationStatus.SUCCEEDED, NotificationType.EMAIL);
+        verify(outboxEventRepository, never()).insertForNotifications(anyCollection(), any(), any());
+        verify(historyCache).statusChanged(userId, ids, NotificationStatus.SUCCEEDED, NotificationType.EMAIL);
+        verify(counterService).add(userId, 0, -2, 0);
+    }
+
+    @Test
+    void save_countsNewRowsAndStatusChangesIntoFailed() {
+
+        Notification notification = notification(NotificationStatus.PENDING);
+        notification.setId(null);
+
+        when(notificationRepository.save(notification)).thenAnswer(inv -> {
+            notification.setId(UUID.randomUUID());
+            notification.setPersistedStatus(notification.getStatus());
+            return notification;
+        });
+
+        notificationStore.save(notification, NotificationTransition.CREATED);
+        verify(counterService).add(notification.getUserId(), 1, 0, 0);
+
+        notification.setStatus(NotificationStatus.FAILED);
+        notificationStore.save(notification, NotificationTransition.FAILED);
+        verify(counterService).add(notification.getUserId(), 0, 1, 0);
+    }
+
+    @Test
+    void history_readsRowsOlderThanAnIncompleteBufferFromTheTable() {
+
+        UUID userId = UUID.randomUUID();
+        Notification newest = notification(NotificationStatus.SUCCEEDED);
+        Notification sameInstant = notification(NotificationStatus.SUCCEEDED);
+        Notification older = notification(NotificationStatus.FAILED);
+        sameInstant.setCreatedOn(newest.getCreatedOn());
+        older.setCreatedOn(newest.getCreatedOn().minusMinutes(1));
+        newest.setSubject("newest");
+        sameInstant.setSubject("same instant");
+        older.setSubject("older");
+
+        when(historyCache.get(eq(userId), any()))
+                .thenReturn(new RecentHistoryCache.Recent(List.of(DtoMapper.from(newest)), false, Set.of(newest.getId())));
+        when(notificationRepository.findByUserIdAndDeletedFalseAndCreatedOnLessThanEqualOrderByCreatedOnDesc(userId, newest.getCreatedOn()))
+                .thenReturn(List.of(newest, sameInstant, older));
+
+        List<NotificationResponse> history = notificationStore.history(userId);
+
+        assertEquals(List.of("newest", "same instant", "older"), history.stream().map(NotificationResponse::getSubject).toList());
+    }
+
+    @Test
+    void history_servesACompleteBufferWithoutQuerying() {
+
+        UUID userId = UUID.randomUUID();
+        List<NotificationResponse> cached = List.of(DtoMapper.from(notification(NotificationStatus.SUCCEEDED)));
+
+        when(historyCache.get(eq(userId), any())).thenReturn(new RecentHistoryCache.Recent(cached, true, Set.of()));
+
+        assertEquals(cached, notificationStore.history(userId));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void markAllDeleted_movesCountsToDeleted() {
+
+        UUID userId = UUID.randomUUID();
+
+        notificationStore.markAllDeleted(userId);
+
+        verify(notificationRepository).markDeletedByUserId(userId);
+        verify(counterService).moveAllToDeleted(userId);
+    }
+
+    private Notification notification(NotificationStatus status) {
+
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .subject("Test Subject")
+                .body("Test Body")
+                .createdOn(LocalDateTime.now())
+                .status(status)
+                .type(NotificationType.EMAIL)
+                .build();
+    }
+}
@@ -1,21 +1,44 @@
 package app.service;
 
+import app.channel.AttachmentStore;
+import app.channel.ChannelDispatcher;
+import app.channel.EmailChannel;
+import app.config.AttachmentProperties;
+import app.config.ChannelProperties;
+import app.config.HistoryCacheProperties;
 import app.exception.NotificationPreferenceDisabledException;
+import app.history.RecentHistoryCache;
+import app.journal.JournalWriteBehind;
 import app.model.Notification;
 import app.model.NotificationPreference;
 import app.model.NotificationStatus;
+import app.model.NotificationTransition;
+import app.model.NotificationType;
 import app.repository.NotificationRepository;
+import app.repository.OutboxEventRepository;
+import app.schedule.NotificationScheduler;
+import app.suppression.SuppressionList;
 import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.MailSender;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.domain.Limit;
 import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,11 +50,22 @@ public class NotificationUTest {
     @Mock
     private NotificationRepository notificationRepository;
     @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
     private NotificationPreferenceService preferenceService;
     @Mock
-    private MailSender mailSender;
+    private JavaMailSender mailSender;
+    @Mock
+    private NotificationScheduler notificationScheduler;
+    @Mock
+    private SuppressionList suppressionList;
+    @Mock
+    private ObjectProvider<JournalWriteBehind> journal;
+    @Mock
+    private ObjectProvider<NotificationInsertBatcher> insertBatcher;
+    @Mock
+    private NotificationCounterService counterService;
 
-    @InjectMocks
     private NotificationService notificationService;
 
     private UUID userId;
@@ -42,16 +76,25 @@ public class NotificationUTest {
     @BeforeEach
     void setup() {
 
+        AttachmentProperties attachmentProperties = new AttachmentProperties();
+        AttachmentStore attachmentStore = new AttachmentStore(attachmentProperties);
+        EmailChannel emailChannel = new EmailChannel(mailSender, attachmentStore, attachmentProperties, 50);
+        ChannelDispatcher channelDispatcher = new ChannelDispatcher(List.of(emailChannel), new ChannelProperties(), new SimpleMeterRegistry(), new StandardEnvironment());
+        NotificationStore notificationStore = new NotificationStore(notificationRepository, outboxEventRepository, new RecentHistoryCache(new HistoryCacheProperties(), new SimpleMeterRegistry()), counterService);
+        notificationService = new NotificationService(notificationRepository, notificationStore, preferenceService, channelDispatcher, notificationScheduler, attachmentStore, suppressionList, journal, insertBatcher);
+
         userId = UUID.randomUUID();
 
         prefEnabled = NotificationPreference.builder()
                 .userId(userId)
+                .type(NotificationType.EMAIL)
                 .enabled(true)
                 .contactInfo("test@example.com")
                 .build();
 
         prefDisabled = NotificationPreference.builder()
                 .userId(userId)
+                .type(NotificationType.EMAIL)
                 .enabled(false)
                 .contactInfo("test@example.com")
                 .build();
@@ -107,24 +150,156 @@ public class NotificationUTest {
     }
 
     @Test
-    void getHistory_filtersOutDeleted() {
+    void send_withJournalEnabled_acknowledgesWithoutWritingTheRow() {
+
+        JournalWriteBehind writeBehind = mock(JournalWriteBehind.class);
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(journal.getIfAvailable()).thenReturn(writeBehind);
+        when(writeBehind.append(any(Notification.class), eq(NotificationTransition.CREATED))).thenReturn(true);
+
+        Notification result = notificationService.send(request);
+
+        assertEquals(NotificationStatus.SUCCEEDED, result.getStatus());
+        verify(writeBehind).append(result, NotificationTransition.CREATED);
+        verifyNoInteractions(notificationRepository, outboxEventRepository);
+    }
+
+    @Test
+    void send_whenJournalBacklogIsFull_writesTheRowDirectly() {
+
+        JournalWriteBehind writeBehind = mock(JournalWriteBehind.class);
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(journal.getIfAvailable()).thenReturn(writeBehind);
+        when(writeBehind.append(any(Notification.class), eq(NotificationTransition.CREATED))).thenReturn(false);
+        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        notificationService.send(request);
+
+        verify(notificationRepository).save(any());
+    }
+
+    @Test
+    void send_withInsertBatcherEnabled_insertsTheRowThroughTheBatcher() {
+
+        NotificationInsertBatcher batcher = mock(NotificationInsertBatcher.class);
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(insertBatcher.getIfAvailable()).thenReturn(batcher);
+        when(batcher.insert(any(Notification.class), eq(NotificationTransition.CREATED))).thenAnswer(inv -> inv.getArgument(0));
+
+        Notification result = notificationService.send(request);
+
+        assertEquals(NotificationStatus.SUCCEEDED, result.getStatus());
+        verify(batcher).insert(result, NotificationTransition.CREATED);
+        verifyNoInteractions(notificationRepository, outboxEventRepository);
+    }
+
+    @Test
+    void accept_persistsEnabledRequestsInOneBatch_andDeliversAsynchronously() {
+
+        UUID disabledUserId = UUID.randomUUID();
+        NotificationRequest disabledRequest = NotificationRequest.builder()
+                .userId(disabledUserId)
+                .subject("Test Subject")
+                .body("Test Body")
+                .build();
+
+        when(preferenceService.getByUserIds(List.of(userId, disabledUserId))).thenReturn(Map.of(userId, prefEnabled));
+        when(notificationRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
+
+        List<Notification> accepted = notificationService.accept(List.of(request, disabledRequest));
+
+        assertEquals(1, accepted.size());
+        verify(notificationRepository, times(1)).saveAll(anyList());
+        verify(notificationRepository, timeout(1000)).save(accepted.get(0));
+        assertEquals(NotificationStatus.SUCCEEDED, accepted.get(0).getStatus());
+    }
+
+    @Test
+    void accept_identicalContentForSeveralUsers_goesOutAsOneMultiRecipientEmail() {
+
+        List<NotificationRequest> requests = new ArrayList<>();
+        Map<UUID, NotificationPreference> preferences = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            UUID recipientId = UUID.randomUUID();
+            requests.add(NotificationRequest.builder().userId(recipientId).subject("Maintenance").body("Tonight at 10pm").build());
+            preferences.put(recipientId, NotificationPreference.builder()
+                    .userId(recipientId)
+                    .type(NotificationType.EMAIL)
+                    .enabled(true)
+                    .contactInfo("user" + i + "@example.com")
+                    .build());
+        }
+
+        when(preferenceService.getByUserIds(anyList())).thenReturn(preferences);
+        when(notificationRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> accepted = notificationService.accept(requests);
+
+        verify(notificationRepository, timeout(1000).times(3)).save(any());
+        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender, times(1)).send(captor.capture());
+        assertEquals(3, captor.getValue().getBcc().length);
+        accepted.forEach(notification -> assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus()));
+    }
+
+    @Test
+    void send_whenSendAtIsInTheFuture_schedulesWithoutDelivering() {
+
+        request.setSendAt(LocalDateTime.now().plusHours(1));
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        Notification result = notificationService.send(request);
+
+        assertEquals(NotificationStatus.SCHEDULED, result.getStatus());
+        assertEquals(request.getSendAt(), result.getSendAt());
+        verify(notificationScheduler).schedule(result);
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void dispatchScheduled_whenAlreadyClaimed_doesNothing() {
 
-        Notification n1 = Notification.builder().deleted(false).build();
-        Notification n2 = Notification.builder().deleted(true).build();
+        UUID notificationId = UUID.randomUUID();
 
-        when(notificationRepository.findByUserId(userId)).thenReturn(List.of(n1, n2));
+        when(notificationRepository.claimScheduled(notificationId)).thenReturn(0);
 
-        List<Notification> result = notificationService.getHistory(userId);
+        notificationService.dispatchScheduled(notificationId);
 
-        assertEquals(1, result.size());
-        assertSame(n1, result.get(0));
+        verify(notificationRepository, never()).findById(any());
+        verifyNoInteractions(mailSender);
     }
 
     @Test
-    void deleteAll_marksAllAsDeleted() {
+    void getHistory_readsRecentNonDeletedRowsOnce_thenServesFromCache() {
+
+        Notification n1 = Notification.builder()
+                .id(UUID.randomUUID())
+                .subject("Test Subject")
+                .createdOn(LocalDateTime.now())
+                .status(NotificationStatus.SUCCEEDED)
+                .type(NotificationType.EMAIL)
+                .userId(userId)
+                .build();
+
+        when(notificationRepository.findByUserIdAndDeletedFalseOrderByCreatedOnDesc(eq(userId), any(Limit.class))).thenReturn(List.of(n1));
+
+        List<NotificationResponse> first = notificationService.getHistory(userId);
+        List<NotificationResponse> second = notificationService.getHistory(userId);
 
-        Notification n1 = Notification.builder().deleted(false).build();
-        Notification n2 = Notification.builder().deleted(false).build();
+        assertEquals(1, first.size());
+        assertEquals("Test Subject", first.get(0).getSubject());
+        assertEquals(first, second);
+        verify(notificationRepository, times(1)).findByUserIdAndDeletedFalseOrderByCreatedOnDesc(eq(userId), any(Limit.class));
+    }
+
+    @Test
+    void deleteAll_marksAllAsDeletedInBulk() {
 
         NotificationPreference pref = NotificationPreference.builder()
                 .contactInfo("test@example.com")
@@ -132,15 +307,29 @@ public class NotificationUTest {
                 .build();
 
         when(preferenceService.getByUserId(userId)).thenReturn(pref);
-        when(notificationRepository.findByUserId(userId)).thenReturn(List.of(n1, n2));
-        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(notificationRepository.markDeletedByUserId(userId)).thenReturn(2);
 
         notificationService.deleteAll(userId);
 
-        assertTrue(n1.isDeleted());
-        assertTrue(n2.isDeleted());
+        verify(outboxEventRepository).insertForUser(eq(userId), eq(NotificationTransition.DELETED), any());
+        verify(notificationRepository).markDeletedByUserId(userId);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteAll_withJournalEnabled_drainsTheUsersJournaledRowsFirst() {
+
+        JournalWriteBehind writeBehind = mock(JournalWriteBehind.class);
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(journal.getIfAvailable()).thenReturn(writeBehind);
+        doCallRealMethod().when(journal).ifAvailable(any());
 
-        verify(notificationRepository, times(2)).save(any());
+        notificationService.deleteAll(userId);
+
+        InOrder inOrder = inOrder(writeBehind, notificationRepository);
+        inOrder.verify(writeBehind).flush(userId);
+        inOrder.verify(notificationRepository).markDeletedByUserId(userId);
     }
 
     @Test
@@ -159,31 +348,31 @@ public class NotificationUTest {
         when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
 
         Notification failed1 = Notification.builder()
+                .id(UUID.randomUUID())
                 .status(NotificationStatus.FAILED)
                 .deleted(false)
                 .build();
         Notification failed2 = Notification.builder()
+                .id(UUID.randomUUID())
                 .status(NotificationStatus.FAILED)
                 .deleted(false)
                 .build();
-        Notification deletedFailed = Notification.builder()
-                .status(NotificationStatus.FAILED)
-                .deleted(true)
-                .build();
 
-        when(notificationRepository.findByUserId(userId)).thenReturn(List.of(failed1, failed2, deletedFailed));
+        when(notificationRepository.findByUserIdAndStatusAndDeletedFalse(userId, NotificationStatus.FAILED)).thenReturn(List.of(failed1, failed2));
 
         doNothing().when(mailSender).send(any(SimpleMailMessage.class));
 
-        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
         notificationService.retryFailed(userId);
 
         verify(mailSender, times(2)).send(any(SimpleMailMessage.class));
 
         assertEquals(NotificationStatus.SUCCEEDED, failed1.getStatus());
         assertEquals(NotificationStatus.SUCCEEDED, failed2.getStatus());
-        assertEquals(NotificationStatus.FAILED, deletedFailed.getStatus());
+
+        List<UUID> ids = List.of(failed1.getId(), failed2.getId());
+        verify(notificationRepository).updateStatus(ids, NotificationStatus.FAILED, NotificationStatus.SUCCEEDED, NotificationType.EMAIL);
+        verify(outboxEventRepository).insertForStatusChange(eq(ids), eq(NotificationStatus.FAILED), eq(NotificationStatus.SUCCEEDED), eq(NotificationType.EMAIL), eq(NotificationTransition.RETRIED), any());
+        verify(notificationRepository, never()).save(any());
     }
 
     @Test
@@ -196,4 +385,36 @@ public class NotificationUTest {
         assertSame(prefEnabled, result);
         verify(preferenceService).getByUserId(userId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void send_toSuppressedAddress_storesSuppressedWithoutSending() {
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(suppressionList.isSuppressed("test@example.com")).thenReturn(true);
+        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        Notification result = notificationService.send(request);
+
+        assertEquals(NotificationStatus.SUPPRESSED, result.getStatus());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void retryFailed_forSuppressedAddress_marksRowsSuppressedWithoutSending() {
+
+        Notification failed = Notification.builder()
+                .id(UUID.randomUUID())
+                .status(NotificationStatus.FAILED)
+                .build();
+
+        when(preferenceService.getByUserId(userId)).thenReturn(prefEnabled);
+        when(notificationRepository.findByUserIdAndStatusAndDeletedFalse(userId, NotificationStatus.FAILED)).thenReturn(List.of(failed));
+        when(suppressionList.isSuppressed("test@example.com")).thenReturn(true);
+
+        notificationService.retryFailed(userId);
+
+        verify(notificationRepository).updateStatus(List.of(failed.getId()), NotificationStatus.FAILED, NotificationStatus.SUPPRESSED, NotificationType.EMAIL);
+        verify(outboxEventRepository).insertForStatusChange(eq(List.of(failed.getId())), eq(NotificationStatus.FAILED), eq(NotificationStatus.SUPPRESSED), eq(NotificationType.EMAIL), eq(NotificationTransition.SUPPRESSED), any());
+        verifyNoInteractions(mailSender);
+    }
+}
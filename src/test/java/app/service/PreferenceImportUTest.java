@@ -0,0 +1,122 @@
+package app.service;
+
+import app.exception.InvalidImportFileException;
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+import app.preference.PreferenceView;
+import app.repository.NotificationPreferenceRepository;
+import app.web.dto.PreferenceImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PreferenceImportUTest {
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ObjectProvider<PreferenceView> preferenceView;
+
+    private PreferenceImportService preferenceImportService;
+
+    @BeforeEach
+    void setUp() {
+
+        preferenceImportService = new PreferenceImportService(preferenceRepository, preferenceView, new TransactionTemplate(transactionManager), new ObjectMapper(), 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importNdjson_upsertsInChunksAndReportsRejectedLines() throws Exception {
+
+        UUID existingUser = UUID.randomUUID();
+        NotificationPreference existing = NotificationPreference.builder()
+                .userId(existingUser)
+                .type(NotificationType.EMAIL)
+                .enabled(false)
+                .contactInfo("old@example.com")
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+        when(preferenceRepository.findAllByUserIdIn(anyCollection()))
+                .thenReturn(List.of(existing))
+                .thenReturn(List.of());
+
+        String ndjson = """
+                {"userId":"%s","notificationEnabled":true,"contactInfo":"new@example.com"}
+                {"userId":"%s","notificationEnabled":true,"contactInfo":"first@example.com"}
+                {"userId":"%s","notificationEnabled":true}
+                not json
+
+                {"userId":"%s","notificationEnabled":false,"contactInfo":"+359888","type":"SMS"}
+                """.formatted(existingUser, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        PreferenceImportResponse response = preferenceImportService.importNdjson(stream(ndjson));
+
+        assertEquals(2, response.getInserted());
+        assertEquals(1, response.getUpdated());
+        assertEquals(2, response.getRejected());
+        assertEquals(List.of(3L, 4L), response.getRejections().stream().map(PreferenceImportResponse.Rejection::line).toList());
+
+        assertTrue(existing.isEnabled());
+        assertEquals("new@example.com", existing.getContactInfo());
+
+        verify(preferenceRepository, times(2)).findAllByUserIdIn(anyCollection());
+        ArgumentCaptor<List<NotificationPreference>> saved = ArgumentCaptor.forClass(List.class);
+        verify(preferenceRepository, times(2)).saveAll(saved.capture());
+        assertEquals(List.of(1, 1), saved.getAllValues().stream().map(List::size).toList());
+        assertEquals(NotificationType.SMS, saved.getAllValues().get(1).get(0).getType());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void importCsv_readsColumnsByHeader() throws Exception {
+
+        when(preferenceRepository.findAllByUserIdIn(anyCollection())).thenReturn(List.of());
+
+        String csv = """
+                contactInfo,userId,type
+                test@example.com,%s,email
+                test2@example.com,not-a-uuid,email
+                """.formatted(UUID.randomUUID());
+
+        PreferenceImportResponse response = preferenceImportService.importCsv(stream(csv));
+
+        assertEquals(1, response.getInserted());
+        assertEquals(1, response.getRejected());
+        assertEquals(3L, response.getRejections().get(0).line());
+    }
+
+    @Test
+    void importCsv_withoutRequiredColumns_isRejected() {
+
+        assertThrows(InvalidImportFileException.class, () -> preferenceImportService.importCsv(stream("email,enabled\n")));
+        verifyNoInteractions(preferenceRepository);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,6 +2,7 @@ package app.service;
 
 import app.model.NotificationPreference;
 import app.model.NotificationType;
+import app.preference.PreferenceView;
 import app.repository.NotificationPreferenceRepository;
 import app.web.dto.PreferenceRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +11,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +28,8 @@ public class PreferenceUTest {
 
     @Mock
     private NotificationPreferenceRepository preferenceRepository;
+    @Mock
+    private ObjectProvider<PreferenceView> preferenceView;
 
     @InjectMocks
     private NotificationPreferenceService preferenceService;
@@ -101,4 +107,45 @@ public class PreferenceUTest {
 
         assertThrows(RuntimeException.class, () -> preferenceService.getByUserId(userId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getByUserId_servedFromTheViewWithoutQueryingTheTable() {
+
+        PreferenceView view = mock(PreferenceView.class);
+        when(preferenceView.getIfAvailable()).thenReturn(view);
+        when(view.find(userId)).thenReturn(Optional.of(existingPreference));
+
+        assertEquals(existingPreference, preferenceService.getByUserId(userId));
+        verifyNoInteractions(preferenceRepository);
+    }
+
+    @Test
+    void getByUserIds_readsOnlyUsersMissingFromTheViewFromTheTable() {
+
+        UUID missingUserId = UUID.randomUUID();
+        NotificationPreference missing = NotificationPreference.builder().userId(missingUserId).type(NotificationType.SMS).build();
+
+        PreferenceView view = mock(PreferenceView.class);
+        when(preferenceView.getIfAvailable()).thenReturn(view);
+        when(view.find(userId)).thenReturn(Optional.of(existingPreference));
+        when(view.find(missingUserId)).thenReturn(Optional.empty());
+        when(preferenceRepository.findAllByUserIdIn(List.of(missingUserId))).thenReturn(List.of(missing));
+
+        Map<UUID, NotificationPreference> preferences = preferenceService.getByUserIds(List.of(userId, missingUserId));
+
+        assertEquals(Map.of(userId, existingPreference, missingUserId, missing), preferences);
+    }
+
+    @Test
+    void upsert_publishesTheSavedPreferenceToTheView() {
+
+        PreferenceView view = mock(PreferenceView.class);
+        when(preferenceView.getIfAvailable()).thenReturn(view);
+        when(preferenceRepository.findByUserId(userId)).thenReturn(Optional.of(existingPreference));
+        when(preferenceRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        preferenceService.upsert(request);
+
+        verify(view).publishAfterCommit(List.of(existingPreference));
+    }
+}
@@ -0,0 +1,110 @@
+package app.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local SMTP server that accepts every message but answers each DATA only after a fixed delay,
+ * standing in for a slow mail provider. One thread per connection, so it never limits client concurrency.
+ */
+public class SlowSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final Duration dataDelay;
+    private final AtomicInteger received = new AtomicInteger();
+
+    public SlowSmtpServer(Duration dataDelay) throws IOException {
+
+        this.dataDelay = dataDelay;
+        this.serverSocket = new ServerSocket(0, 1000, InetAddress.getLoopbackAddress());
+        this.connections.submit(this::acceptLoop);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int received() {
+        return received.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.submit(() -> session(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+
+        try (socket) {
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            boolean inData = false;
+
+            reply(out, "220 localhost slow SMTP stand-in");
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                if (inData) {
+                    if (line.equals(".")) {
+                        inData = false;
+                        Thread.sleep(dataDelay.toMillis());
+                        received.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    continue;
+                }
+
+                switch (line.length() < 4 ? line.toUpperCase(Locale.ROOT) : line.substring(0, 4).toUpperCase(Locale.ROOT)) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "DATA" -> {
+                        inData = true;
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
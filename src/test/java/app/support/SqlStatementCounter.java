@@ -0,0 +1,79 @@
+package app.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hibernate statement inspector that records the SQL prepared on any thread between {@link #start()} and
+ * {@link #stop()}, so statements written by background writers such as the insert batcher are counted too.
+ * Callers must make sure no unrelated background work runs meanwhile. A JDBC batch is prepared once, so it
+ * counts as one statement. Registered through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static volatile List<String> recorded;
+
+    public static void start() {
+        recorded = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    public static SqlCounts stop() {
+
+        List<String> statements = recorded;
+        recorded = null;
+
+        if (statements == null) {
+            return SqlCounts.of(List.of());
+        }
+        synchronized (statements) {
+            return SqlCounts.of(statements);
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+
+        List<String> statements = recorded;
+        if (statements != null) {
+            statements.add(sql);
+        }
+
+        return sql;
+    }
+
+    public record SqlCounts(int select, int insert, int update, int delete, List<String> statements) {
+
+        static SqlCounts of(List<String> statements) {
+
+            int select = 0, insert = 0, update = 0, delete = 0;
+
+            for (String statement : statements) {
+                String kind = statement.stripLeading().toLowerCase(Locale.ROOT);
+                if (kind.startsWith("select") || kind.startsWith("with")) {
+                    select++;
+                } else if (kind.startsWith("insert")) {
+                    insert++;
+                } else if (kind.startsWith("update")) {
+                    update++;
+                } else if (kind.startsWith("delete")) {
+                    delete++;
+                }
+            }
+
+            return new SqlCounts(select, insert, update, delete, List.copyOf(statements));
+        }
+
+        public SqlCounts withoutStatements() {
+            return new SqlCounts(select, insert, update, delete, List.of());
+        }
+
+        @Override
+        public String toString() {
+            return "select=%d insert=%d update=%d delete=%d %s".formatted(select, insert, update, delete, statements);
+        }
+    }
+}
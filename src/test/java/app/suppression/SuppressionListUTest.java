@@ -0,0 +1,97 @@
+package app.suppression;
+
+import app.config.SuppressionProperties;
+import app.model.SuppressedAddress;
+import app.model.SuppressionReason;
+import app.repository.SuppressedAddressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SuppressionListUTest {
+
+    @Mock
+    private SuppressedAddressRepository repository;
+
+    private SuppressionList suppressionList;
+
+    @BeforeEach
+    void setUp() {
+
+        SuppressionProperties properties = new SuppressionProperties();
+        properties.setExpectedAddresses(10_000);
+        suppressionList = new SuppressionList(repository, properties);
+    }
+
+    @Test
+    void isSuppressed_afterRebuild_unknownAddressNeedsNoQuery() {
+
+        when(repository.streamAllAddresses()).thenReturn(Stream.of("bounced@example.com"));
+        suppressionList.rebuild();
+
+        assertFalse(suppressionList.isSuppressed("someone@example.com"));
+        verify(repository, never()).existsByAddress(anyString());
+    }
+
+    @Test
+    void isSuppressed_filterHit_isConfirmedAgainstTable() {
+
+        when(repository.streamAllAddresses()).thenReturn(Stream.of("bounced@example.com"));
+        when(repository.existsByAddress("bounced@example.com")).thenReturn(true);
+        suppressionList.rebuild();
+
+        assertTrue(suppressionList.isSuppressed("  Bounced@Example.com "));
+        verify(repository).existsByAddress("bounced@example.com");
+    }
+
+    @Test
+    void suppress_takesEffectBeforeNextRebuild() {
+
+        when(repository.streamAllAddresses()).thenReturn(Stream.empty());
+        suppressionList.rebuild();
+
+        suppressionList.suppress("complaint@example.com", SuppressionReason.COMPLAINT);
+
+        verify(repository).save(any(SuppressedAddress.class));
+        assertTrue(suppressionList.isSuppressed("complaint@example.com"));
+    }
+
+    @Test
+    void unsuppress_liftsSuppressionDespiteStaleFilterBit() {
+
+        when(repository.streamAllAddresses()).thenReturn(Stream.of("bounced@example.com"));
+        when(repository.existsByAddress("bounced@example.com")).thenReturn(false);
+        suppressionList.rebuild();
+
+        suppressionList.unsuppress("bounced@example.com");
+
+        verify(repository).deleteByAddress("bounced@example.com");
+        assertFalse(suppressionList.isSuppressed("bounced@example.com"));
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegativesAndFewFalsePositives() {
+
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@example.com")));
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID() + "@example.com"))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,105 @@
+package app.trace;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageTimerUTest {
+
+    private InMemorySpanExporter spanExporter;
+    private SdkTracerProvider tracerProvider;
+    private StageTimer stageTimer;
+
+    @BeforeEach
+    void setUp() {
+
+        spanExporter = InMemorySpanExporter.create();
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build();
+
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("test"), currentTraceContext, event -> {
+        }, new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+
+        stageTimer = new StageTimer(observationRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        StageTimings.end();
+        tracerProvider.shutdown();
+    }
+
+    @Test
+    void time_nestedStages_exportChildSpansAndRecordBreakdown() {
+
+        StageTimings timings = StageTimings.begin("POST /api/v1/notifications");
+
+        String result = stageTimer.time("NotificationService.send", () -> {
+            stageTimer.time("NotificationRepository.save", () -> null);
+            stageTimer.time("ChannelDispatcher.dispatch.email", () -> true);
+            return "sent";
+        });
+
+        assertEquals("sent", result);
+
+        Map<String, SpanData> spans = spanExporter.getFinishedSpanItems().stream()
+                .collect(Collectors.toMap(SpanData::getName, Function.identity()));
+        assertEquals(3, spans.size());
+        // span names are kebab-cased by the tracing handler
+        SpanData service = spans.get("notification-service.send");
+        assertEquals(service.getSpanId(), spans.get("notification-repository.save").getParentSpanId());
+        assertEquals(service.getSpanId(), spans.get("channel-dispatcher.dispatch.email").getParentSpanId());
+
+        List<StageTimings.Stage> stages = timings.stages();
+        assertEquals(List.of("NotificationService.send", "NotificationRepository.save", "ChannelDispatcher.dispatch.email"),
+                stages.stream().map(StageTimings.Stage::name).toList());
+        assertEquals(List.of(0, 1, 1), stages.stream().map(StageTimings.Stage::depth).toList());
+        assertTrue(timings.breakdown().contains("    NotificationRepository.save "));
+    }
+
+    @Test
+    void time_failingStage_isStillRecordedAndRethrown() {
+
+        StageTimings timings = StageTimings.begin("kafka listener");
+
+        assertThrows(IllegalStateException.class, () -> stageTimer.time("NotificationService.accept", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, timings.stages().size());
+        SpanData span = spanExporter.getFinishedSpanItems().get(0);
+        assertEquals("notification-service.accept", span.getName());
+        assertEquals(io.opentelemetry.api.trace.StatusCode.ERROR, span.getStatus().getStatusCode());
+    }
+
+    @Test
+    void time_withoutActiveTimings_onlyTraces() {
+
+        assertEquals(42, stageTimer.time("OutboxRelay.publish", () -> 42));
+
+        assertEquals(1, spanExporter.getFinishedSpanItems().size());
+        assertNull(StageTimings.current());
+    }
+}
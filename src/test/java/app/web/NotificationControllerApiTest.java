@@ -1,10 +1,15 @@
 package app.web;
 
+import app.exception.AdmissionRejectedException;
 import app.model.Notification;
+import app.model.NotificationCounter;
 import app.model.NotificationStatus;
 import app.model.NotificationType;
 import app.service.NotificationService;
+import app.web.admission.AdmissionLimiter;
 import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
+import app.web.mapper.DtoMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +19,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -28,6 +34,9 @@ public class NotificationControllerApiTest {
     @MockitoBean
     private NotificationService notificationService;
 
+    @MockitoBean
+    private AdmissionLimiter admissionLimiter;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -77,9 +86,9 @@ public class NotificationControllerApiTest {
     @Test
     void testGetHistory_Success() throws Exception {
 
-        List<Notification> notifications = List.of(notification);
+        List<NotificationResponse> responses = List.of(DtoMapper.from(notification));
 
-        when(notificationService.getHistory(userId)).thenReturn(notifications);
+        when(notificationService.getHistory(userId)).thenReturn(responses);
 
         mockMvc.perform(get("/api/v1/notifications")
                         .param("userId", userId.toString()))
@@ -88,6 +97,21 @@ public class NotificationControllerApiTest {
                 .andExpect(jsonPath("$[0].status").value(notification.getStatus().toString()));
     }
 
+    @Test
+    void testGetStats_Success() throws Exception {
+
+        when(notificationService.getStats(userId)).thenReturn(NotificationCounter.builder().userId(userId).total(12).failed(3).deleted(5).build());
+
+        mockMvc.perform(get("/api/v1/notifications/stats")
+                        .param("userId", userId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(12))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.deleted").value(5));
+
+        verify(notificationService).getStats(userId);
+    }
+
     @Test
     void testDeleteAll_Success() throws Exception {
 
@@ -119,4 +143,30 @@ public class NotificationControllerApiTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSendNotification_OverAdmissionLimit() throws Exception {
+
+        when(admissionLimiter.acquire()).thenThrow(new AdmissionRejectedException("Too many concurrent requests: queue is full.", Duration.ofSeconds(3)));
+
+        mockMvc.perform(post("/api/v1/notifications")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void testGetHistory_NotAdmissionControlled() throws Exception {
+
+        when(notificationService.getHistory(userId)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/notifications")
+                        .param("userId", userId.toString()))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(admissionLimiter);
+    }
+}
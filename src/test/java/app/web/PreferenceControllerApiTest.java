@@ -3,6 +3,8 @@ package app.web;
 import app.model.NotificationPreference;
 import app.model.NotificationType;
 import app.service.NotificationPreferenceService;
+import app.service.PreferenceImportService;
+import app.web.dto.PreferenceImportResponse;
 import app.web.dto.PreferenceRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +15,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -26,6 +30,9 @@ public class PreferenceControllerApiTest {
     @MockitoBean
     private NotificationPreferenceService preferenceService;
 
+    @MockitoBean
+    private PreferenceImportService preferenceImportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -94,4 +101,26 @@ public class PreferenceControllerApiTest {
                         .param("userId", userId.toString()))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testImportPreferences_Csv() throws Exception {
+
+        PreferenceImportResponse response = PreferenceImportResponse.builder()
+                .inserted(1)
+                .updated(0)
+                .rejected(1)
+                .rejections(List.of(new PreferenceImportResponse.Rejection(3, "contactInfo is required.")))
+                .build();
+        when(preferenceImportService.importCsv(any(InputStream.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/preferences/import")
+                        .contentType("text/csv")
+                        .content("userId,notificationEnabled,contactInfo\n" + userId + ",true,test@example.com\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(3));
+
+        verify(preferenceImportService).importCsv(any(InputStream.class));
+    }
+}
@@ -0,0 +1,263 @@
+package app.web;
+
+import app.model.Notification;
+import app.model.NotificationCounter;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationCounterRepository;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import app.support.SqlStatementCounter;
+import app.support.SqlStatementCounter.SqlCounts;
+import app.web.dto.NotificationRequest;
+import app.web.dto.PreferenceRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number and kind of SQL statements, and the rows loaded, for every API operation at several data
+ * sizes. An operation whose statement count grows with the user's data (an N+1) fails here.
+ * <p>
+ * Statements are counted on every thread, with the outbox relay, listeners and scheduled jobs off so only the
+ * request's own work is measured. {@link SqlStatementCountBatchedApiTest} repeats the run with the insert
+ * batcher on. The preference view is off in both: without a broker it never finishes its replay and every
+ * lookup reads the table, which is what these counts already show. Rows loaded come from Hibernate statistics
+ * and cover all threads as well.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-count;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=app.support.SqlStatementCounter",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "spring.kafka.listener.auto-startup=false",
+        "spring.kafka.admin.auto-create=false",
+        "notification.scheduler.preload-interval=1h",
+        "notification.scheduler.preload-window=2h",
+        "management.health.mail.enabled=false"
+})
+public class SqlStatementCountApiTest {
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Autowired
+    private NotificationCounterRepository counterRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Statistics statistics;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = UUID.randomUUID();
+
+        preferenceRepository.save(NotificationPreference.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .enabled(true)
+                .contactInfo("test@example.com")
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        counterRepository.save(NotificationCounter.builder().userId(userId).build());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void sendNotification(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.SUCCEEDED, false);
+        NotificationRequest request = NotificationRequest.builder().userId(userId).subject("Subject").body("Body").build();
+
+        Measurement measurement = measure(post("/api/v1/notifications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        measurement.assertStatements(1, 2, 1, 0);
+        measurement.assertRowsLoaded(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getHistory(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.SUCCEEDED, false);
+        seedNotifications(size, NotificationStatus.SUCCEEDED, true);
+
+        Measurement measurement = measure(get("/api/v1/notifications").param("userId", userId.toString()));
+
+        measurement.assertStatements(1, 0, 0, 0);
+        measurement.assertRowsLoaded(size);
+
+        Measurement cached = measure(get("/api/v1/notifications").param("userId", userId.toString()));
+
+        cached.assertStatements(0, 0, 0, 0);
+        cached.assertRowsLoaded(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getStats(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.FAILED, false);
+
+        Measurement measurement = measure(get("/api/v1/notifications/stats").param("userId", userId.toString()));
+
+        measurement.assertStatements(1, 0, 0, 0);
+        measurement.assertRowsLoaded(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deleteAll(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.SUCCEEDED, false);
+
+        Measurement measurement = measure(delete("/api/v1/notifications").param("userId", userId.toString()));
+
+        measurement.assertStatements(1, 1, 2, 0);
+        measurement.assertRowsLoaded(1);
+        assertEquals(0, notificationRepository.findByUserIdAndDeletedFalse(userId).size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void retryFailed(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.FAILED, false);
+        seedNotifications(size, NotificationStatus.SUCCEEDED, false);
+
+        Measurement measurement = measure(put("/api/v1/notifications").param("userId", userId.toString()));
+
+        measurement.assertStatements(2, 1, 2, 0);
+        measurement.assertRowsLoaded(1 + size);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void upsertPreference(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.SUCCEEDED, false);
+        PreferenceRequest request = PreferenceRequest.builder().userId(userId).notificationEnabled(false).contactInfo("new@example.com").build();
+
+        Measurement measurement = measure(post("/api/v1/preferences")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        measurement.assertStatements(1, 0, 1, 0);
+        measurement.assertRowsLoaded(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getPreference(int size) throws Exception {
+
+        seedNotifications(size, NotificationStatus.SUCCEEDED, false);
+
+        Measurement measurement = measure(get("/api/v1/preferences").param("userId", userId.toString()));
+
+        measurement.assertStatements(1, 0, 0, 0);
+        measurement.assertRowsLoaded(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void importPreferences(int size) throws Exception {
+
+        StringBuilder csv = new StringBuilder("userId,notificationEnabled,contactInfo\n")
+                .append(userId).append(",true,updated@example.com\n");
+        for (int i = 0; i < size; i++) {
+            csv.append(UUID.randomUUID()).append(",true,user").append(i).append("@example.com\n");
+        }
+
+        Measurement measurement = measure(post("/api/v1/preferences/import").contentType("text/csv").content(csv.toString()));
+
+        measurement.assertStatements(1, 1, 1, 0);
+        measurement.assertRowsLoaded(1);
+    }
+
+    private void seedNotifications(int count, NotificationStatus status, boolean deleted) {
+
+        List<Notification> notifications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notifications.add(Notification.builder()
+                    .subject("Subject " + i)
+                    .body("Body " + i)
+                    .createdOn(LocalDateTime.now())
+                    .status(status)
+                    .type(NotificationType.EMAIL)
+                    .userId(userId)
+                    .deleted(deleted)
+                    .build());
+        }
+        notificationRepository.saveAll(notifications);
+    }
+
+    private Measurement measure(RequestBuilder request) throws Exception {
+
+        statistics.clear();
+        SqlStatementCounter.start();
+
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+
+        return new Measurement(SqlStatementCounter.stop(), statistics.getEntityLoadCount());
+    }
+
+    private record Measurement(SqlCounts counts, long rowsLoaded) {
+
+        void assertStatements(int select, int insert, int update, int delete) {
+            assertEquals(new SqlCounts(select, insert, update, delete, List.of()), counts.withoutStatements(), counts::toString);
+        }
+
+        void assertRowsLoaded(long expected) {
+            assertEquals(expected, rowsLoaded, counts::toString);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package app.web;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link SqlStatementCountApiTest} with new notifications written by the insert batcher's writer thread. The
+ * counts are the same: the batcher saves round trips per commit, not statements per request.
+ */
+@TestPropertySource(properties = {
+        "notification.insert-batch.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:sql-count-batched;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+})
+public class SqlStatementCountBatchedApiTest extends SqlStatementCountApiTest {
+}
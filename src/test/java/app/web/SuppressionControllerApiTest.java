@@ -0,0 +1,71 @@
+package app.web;
+
+import app.model.SuppressionReason;
+import app.suppression.SuppressionList;
+import app.web.dto.SuppressionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SuppressionController.class)
+public class SuppressionControllerApiTest {
+
+    @MockitoBean
+    private SuppressionList suppressionList;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSuppress_DefaultsToManual() throws Exception {
+
+        SuppressionRequest request = SuppressionRequest.builder().address("bounced@example.com").build();
+
+        mockMvc.perform(post("/api/v1/suppressions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        verify(suppressionList).suppress("bounced@example.com", SuppressionReason.MANUAL);
+    }
+
+    @Test
+    void testSuppress_WithoutAddress_ReturnsBadRequest() throws Exception {
+
+        SuppressionRequest request = SuppressionRequest.builder().address(" ").reason(SuppressionReason.BOUNCE).build();
+
+        mockMvc.perform(post("/api/v1/suppressions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Address must not be blank."));
+
+        mockMvc.perform(post("/api/v1/suppressions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(suppressionList, never()).suppress(anyString(), any());
+    }
+
+    @Test
+    void testUnsuppress_WithBlankAddress_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(delete("/api/v1/suppressions").param("address", ""))
+                .andExpect(status().isBadRequest());
+
+        verify(suppressionList, never()).unsuppress(anyString());
+    }
+}
@@ -0,0 +1,107 @@
+package app.web.admission;
+
+import app.config.AdmissionProperties;
+import app.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionLimiterUTest {
+
+    private AdmissionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+
+        properties = new AdmissionProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(4);
+        properties.setQueueCapacity(1);
+        properties.setMaxQueueWait(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void acquire_overLimitAndQueue_rejectsWithRetryAfter() {
+
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+        limiter.acquire();
+        limiter.acquire();
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, limiter::acquire);
+
+        assertTrue(rejected.getRetryAfter().toSeconds() >= 1);
+        assertEquals(1.0, meterRegistry.get("notification.admission.rejected").counter().count());
+    }
+
+    @Test
+    void acquire_queuedRequest_isAdmittedWhenSlotIsReleased() throws Exception {
+
+        properties.setMaxQueueWait(Duration.ofSeconds(5));
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+        AdmissionLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+
+        CompletableFuture<AdmissionLimiter.Permit> queued = CompletableFuture.supplyAsync(limiter::acquire);
+        Thread.sleep(50);
+        assertFalse(queued.isDone());
+
+        limiter.release(first);
+
+        assertNotNull(queued.get(1, TimeUnit.SECONDS));
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void release_slowRequests_shrinkLimitAndFastOnesGrowIt() throws Exception {
+
+        properties.setLatencyThreshold(Duration.ofMillis(20));
+        properties.setBackoffRatio(0.5);
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+
+        AdmissionLimiter.Permit slow = limiter.acquire();
+        Thread.sleep(40);
+        limiter.release(slow);
+        assertEquals(1, limiter.limit());
+
+        limiter.release(limiter.acquire());
+        assertEquals(2, limiter.limit());
+
+        AdmissionLimiter.Permit first = limiter.acquire();
+        AdmissionLimiter.Permit second = limiter.acquire();
+        limiter.release(first);
+        limiter.release(second);
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void release_burstOfSlowRequests_shrinksLimitOncePerRoundTrip() throws Exception {
+
+        properties.setInitialLimit(4);
+        properties.setLatencyThreshold(Duration.ofMillis(20));
+        properties.setBackoffRatio(0.5);
+        AdmissionLimiter limiter = new AdmissionLimiter(properties, meterRegistry);
+
+        AdmissionLimiter.Permit first = limiter.acquire();
+        AdmissionLimiter.Permit second = limiter.acquire();
+        AdmissionLimiter.Permit third = limiter.acquire();
+        Thread.sleep(40);
+        limiter.release(first);
+        limiter.release(second);
+        limiter.release(third);
+        assertEquals(2, limiter.limit());
+
+        AdmissionLimiter.Permit later = limiter.acquire();
+        Thread.sleep(40);
+        limiter.release(later);
+        assertEquals(1, limiter.limit());
+    }
+}